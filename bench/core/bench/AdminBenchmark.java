@@ -0,0 +1,54 @@
+package core.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link core.api.IAdmin} operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AdminBenchmark {
+
+    @Benchmark
+    public void createClass(Scratch scratch) {
+        String name = scratch.nextName("Course_");
+        scratch.admin.createClass(name, Dataset.YEAR, name, 100);
+    }
+
+    @Benchmark
+    public void changeCapacity(Dataset dataset) {
+        int c = dataset.randomCourse();
+        dataset.admin.changeCapacity(dataset.courseNames[c], Dataset.YEAR, dataset.capacity + (c & 1));
+    }
+
+    @Benchmark
+    public boolean classExists(Dataset dataset) {
+        return dataset.admin.classExists(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public boolean classExistsMiss(Dataset dataset) {
+        return dataset.admin.classExists(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR + 1);
+    }
+
+    @Benchmark
+    public String getClassInstructor(Dataset dataset) {
+        return dataset.admin.getClassInstructor(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public int getClassCapacity(Dataset dataset) {
+        return dataset.admin.getClassCapacity(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+}
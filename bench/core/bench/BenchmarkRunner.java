@@ -0,0 +1,44 @@
+package core.bench;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suite once single-threaded and once with one thread per core, writing each run as JSON to
+ * {@code target/jmh/threads-N.json} so results can be compared between releases.
+ *
+ * Build and run with {@code mvn -P benchmarks package && java -jar target/benchmarks.jar}. Any JMH command line
+ * options are passed through, e.g. {@code AdminBenchmark -p students=10000 -p courses=100} for a quick run.
+ * Giving {@code -t} runs only that thread count.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int[] threads = commandLine.getThreads().hasValue()
+                ? new int[] {commandLine.getThreads().get()}
+                : new int[] {1, Runtime.getRuntime().availableProcessors()};
+
+        new File("target/jmh").mkdirs();
+        for (int count : threads) {
+            ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+            if (commandLine.getIncludes().isEmpty()) {
+                builder.include(BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark");
+            }
+            Options options = builder
+                    .threads(count)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/threads-" + count + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package core.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link core.api.ICourseManager} operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CourseManagerBenchmark {
+
+    @Benchmark
+    public void createClass(Scratch scratch) {
+        String name = scratch.nextName("Course_");
+        scratch.courseManager.createClass(name, Dataset.YEAR, name, 100);
+    }
+
+    @Benchmark
+    public boolean classExists(Dataset dataset) {
+        return dataset.courseManager.classExists(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public String getClassInstructor(Dataset dataset) {
+        return dataset.courseManager.getClassInstructor(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public int getClassCapacity(Dataset dataset) {
+        return dataset.courseManager.getClassCapacity(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+}
@@ -0,0 +1,215 @@
+package core.bench;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import core.api.IAdmin;
+import core.api.IAsyncInstructor;
+import core.api.IAsyncStudent;
+import core.api.ICourseManager;
+import core.api.IGradebookExporter;
+import core.api.IInstructor;
+import core.api.IRegistrar;
+import core.api.IStudent;
+import core.api.ISymbolTable;
+import core.api.impl.Admin;
+import core.api.impl.AsyncInstructor;
+import core.api.impl.AsyncStudent;
+import core.api.impl.CourseManager;
+import core.api.impl.DataManager;
+import core.api.impl.GradebookExporter;
+import core.api.impl.Instructor;
+import core.api.impl.Registrar;
+import core.api.impl.Student;
+import core.api.impl.SymbolTable;
+
+/**
+ * Generated data store shared by all benchmark threads.
+ *
+ * Course {@code c} is "Course_c" in {@link #YEAR}, taught by "Instructor_(c/2)" and has {@code homeworks} homeworks.
+ * Student {@code s} is registered for {@code coursesPerStudent} courses, the first of which is {@code s % courses}.
+ * Students {@code s < courses * submittersPerCourse} have submitted, and been graded on, every homework of that first course.
+ * The first homework of course 0 is the hot one: students {@code s < hotSubmitters} have also submitted it and been graded.
+ * Courses keep spare seats so registrations can be measured without filling them up.
+ *
+ * The defaults are production scale; pass smaller values with {@code -p} for a quick run.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    public static final int YEAR = 2017;
+
+    /** Students outside the dataset, used by benchmarks that register and drop again */
+    public static final int VISITORS = 1024;
+
+    @Param("10000")
+    public int courses;
+
+    @Param("1000000")
+    public int students;
+
+    @Param("50")
+    public int homeworks;
+
+    @Param("4")
+    public int coursesPerStudent;
+
+    @Param("10")
+    public int submittersPerCourse;
+
+    @Param("10000")
+    public int hotSubmitters;
+
+    public DataManager data;
+    public IAdmin admin;
+    public ICourseManager courseManager;
+    public IStudent student;
+    public IInstructor instructor;
+    public IAsyncStudent asyncStudent;
+    public IAsyncInstructor asyncInstructor;
+    public IRegistrar registrar;
+    public ISymbolTable symbols;
+    public IGradebookExporter exporter;
+
+    public String[] courseNames;
+    public String[] instructorNames;
+    public String[] studentNames;
+    public String[] homeworkNames;
+    public String[] visitorNames;
+    public int capacity;
+
+    /** Ids of {@link #courseNames} and {@link #studentNames}, for the id-based benchmarks; homework ids are their index */
+    public int[] courseIds;
+    public int[] studentIds;
+
+    /** Grades of every submitter of each course, as passed to {@link IInstructor#assignGrades} */
+    public Map<String, Integer>[] courseGrades;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        if (this.courses * this.submittersPerCourse > this.students) {
+            throw new IllegalArgumentException("students must be at least courses * submittersPerCourse");
+        }
+        if (this.hotSubmitters > this.students) {
+            throw new IllegalArgumentException("students must be at least hotSubmitters");
+        }
+        this.data = new DataManager();
+        Admin admin = new Admin(this.data);
+        this.admin = admin;
+        this.courseManager = new CourseManager(admin);
+        this.student = new Student(this.data);
+        this.instructor = new Instructor(this.data);
+        this.asyncStudent = new AsyncStudent(this.data);
+        this.asyncInstructor = new AsyncInstructor(this.data);
+        this.registrar = new Registrar(this.data);
+        this.symbols = new SymbolTable(this.data);
+        this.exporter = new GradebookExporter(this.data);
+
+        this.courseNames = names("Course_", this.courses);
+        this.studentNames = names("Student_", this.students);
+        this.homeworkNames = names("HW_", this.homeworks);
+        this.visitorNames = names("Visitor_", VISITORS);
+        this.instructorNames = new String[this.courses];
+        for (int c = 0; c < this.courses; c++) this.instructorNames[c] = "Instructor_" + (c / 2);
+
+        int enrolled = (int) ((long) this.students * this.coursesPerStudent / this.courses) + 1;
+        this.capacity = 2 * enrolled + VISITORS;
+        for (int c = 0; c < this.courses; c++) {
+            this.admin.createClass(this.courseNames[c], YEAR, this.instructorNames[c], this.capacity);
+            for (String homework : this.homeworkNames) {
+                this.instructor.addHomework(this.instructorNames[c], this.courseNames[c], YEAR, homework);
+            }
+        }
+
+        register();
+
+        this.courseGrades = new Map[this.courses];
+        for (int c = 0; c < this.courses; c++) {
+            Map<String, Integer> grades = new HashMap<>();
+            for (int j = 0; j < this.submittersPerCourse; j++) {
+                String name = this.studentNames[submitter(c, j)];
+                grades.put(name, 50 + j % 50);
+                for (String homework : this.homeworkNames) {
+                    this.student.submitHomework(name, homework, "Answer of " + name, this.courseNames[c], YEAR);
+                    this.instructor.assignGrade(this.instructorNames[c], this.courseNames[c], YEAR, homework, name, 50 + j % 50);
+                }
+            }
+            this.courseGrades[c] = grades;
+        }
+        for (int s = 0; s < this.hotSubmitters; s++) {
+            String name = this.studentNames[s];
+            this.student.submitHomework(name, this.homeworkNames[0], "Answer of " + name, this.courseNames[0], YEAR);
+            this.instructor.assignGrade(this.instructorNames[0], this.courseNames[0], YEAR, this.homeworkNames[0], name, 50 + s % 50);
+        }
+
+        this.courseIds = new int[this.courses];
+        for (int c = 0; c < this.courses; c++) this.courseIds[c] = this.symbols.getClassId(this.courseNames[c], YEAR);
+        this.studentIds = new int[this.students];
+        for (int s = 0; s < this.students; s++) this.studentIds[s] = this.symbols.getStudentId(this.studentNames[s]);
+    }
+
+    // Registrations go through the batch API so setup stays in the seconds range at full scale
+    private void register() {
+        int stride = Math.max(1, this.courses / this.coursesPerStudent);
+        int batch = 1 << 16;
+        String[] names = new String[batch];
+        String[] classes = new String[batch];
+        int[] years = new int[batch];
+        int pending = 0;
+        for (int s = 0; s < this.students; s++) {
+            for (int k = 0; k < this.coursesPerStudent; k++) {
+                names[pending] = this.studentNames[s];
+                classes[pending] = this.courseNames[(s + k * stride) % this.courses];
+                years[pending] = YEAR;
+                if (++pending == batch) {
+                    this.registrar.registerForClasses(names, classes, years);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            this.registrar.registerForClasses(Arrays.copyOf(names, pending),
+                    Arrays.copyOf(classes, pending), Arrays.copyOf(years, pending));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        this.data.close();
+    }
+
+    /**
+     * @return Id of the {@code j}-th student who submitted every homework of course {@code c}
+     */
+    public int submitter(int c, int j) {
+        return c + j * this.courses;
+    }
+
+    public int randomCourse() {
+        return ThreadLocalRandom.current().nextInt(this.courses);
+    }
+
+    public int randomStudent() {
+        return ThreadLocalRandom.current().nextInt(this.students);
+    }
+
+    public String randomHomework() {
+        return this.homeworkNames[ThreadLocalRandom.current().nextInt(this.homeworks)];
+    }
+
+    static String[] names(String prefix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) names[i] = prefix + i;
+        return names;
+    }
+}
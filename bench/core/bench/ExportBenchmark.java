@@ -0,0 +1,55 @@
+package core.bench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.api.GradebookFormat;
+
+/**
+ * {@link core.api.IGradebookExporter} operations, writing to a channel that discards its input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExportBenchmark {
+
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            src.position(src.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Benchmark
+    public long exportClassCsv(Dataset dataset) throws IOException {
+        return dataset.exporter.exportClass(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR, GradebookFormat.CSV, DISCARD);
+    }
+
+    @Benchmark
+    public long exportClassColumnar(Dataset dataset) throws IOException {
+        return dataset.exporter.exportClass(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR, GradebookFormat.COLUMNAR, DISCARD);
+    }
+}
@@ -0,0 +1,119 @@
+package core.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.api.GradeStatistics;
+
+/**
+ * {@link core.api.IInstructor} operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InstructorBenchmark {
+
+    @Benchmark
+    public void addHomework(Scratch scratch) {
+        scratch.instructor.addHomework(Scratch.INSTRUCTOR, Scratch.COURSE, Dataset.YEAR, scratch.nextName("HW_"));
+    }
+
+    @Benchmark
+    public void assignGrade(Dataset dataset) {
+        int c = dataset.randomCourse();
+        int j = ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse);
+        dataset.instructor.assignGrade(dataset.instructorNames[c], dataset.courseNames[c], Dataset.YEAR,
+                dataset.randomHomework(), dataset.studentNames[dataset.submitter(c, j)], 50 + j % 50);
+    }
+
+    @Benchmark
+    public boolean assignGradeAsync(Dataset dataset) {
+        int c = dataset.randomCourse();
+        int j = ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse);
+        return dataset.asyncInstructor.assignGrade(dataset.instructorNames[c], dataset.courseNames[c], Dataset.YEAR,
+                dataset.randomHomework(), dataset.studentNames[dataset.submitter(c, j)], 50 + j % 50).join();
+    }
+
+    // One call grades every submitter of a homework
+    @Benchmark
+    public boolean assignGrades(Dataset dataset) {
+        int c = dataset.randomCourse();
+        return dataset.instructor.assignGrades(dataset.instructorNames[c], dataset.courseNames[c], Dataset.YEAR,
+                dataset.randomHomework(), dataset.courseGrades[c]);
+    }
+
+    @Benchmark
+    public GradeStatistics getGradeStatistics(Dataset dataset) {
+        return dataset.instructor.getGradeStatistics(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR, dataset.randomHomework());
+    }
+
+    @Benchmark
+    public GradeStatistics getCourseGradeStatistics(Dataset dataset) {
+        return dataset.instructor.getCourseGradeStatistics(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public boolean homeworkExists(Dataset dataset) {
+        return dataset.instructor.homeworkExists(dataset.courseNames[dataset.randomCourse()], Dataset.YEAR, dataset.randomHomework());
+    }
+
+    @Benchmark
+    public Integer getGrade(Dataset dataset) {
+        int c = dataset.randomCourse();
+        String name = dataset.studentNames[dataset.submitter(c, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse))];
+        return dataset.instructor.getGrade(dataset.courseNames[c], Dataset.YEAR, dataset.randomHomework(), name);
+    }
+
+    @Benchmark
+    public Integer getGradeById(Dataset dataset) {
+        int c = dataset.randomCourse();
+        int s = dataset.submitter(c, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse));
+        return dataset.instructor.getGrade(dataset.courseIds[c], ThreadLocalRandom.current().nextInt(dataset.homeworks), dataset.studentIds[s]);
+    }
+
+    @Benchmark
+    public String getSubmission(Dataset dataset) {
+        int c = dataset.randomCourse();
+        String name = dataset.studentNames[dataset.submitter(c, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse))];
+        return dataset.instructor.getSubmission(dataset.courseNames[c], Dataset.YEAR, dataset.randomHomework(), name);
+    }
+
+    // Reads and writes of one hot homework at the 20:1 ratio seen in production; readers must not slow down behind the writer
+    @Benchmark
+    @Group("hotHomework")
+    @GroupThreads(20)
+    public Integer hotHomeworkRead(Dataset dataset) {
+        String name = dataset.studentNames[dataset.submitter(0, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse))];
+        return dataset.instructor.getGrade(dataset.courseNames[0], Dataset.YEAR, dataset.homeworkNames[0], name);
+    }
+
+    @Benchmark
+    @Group("hotHomework")
+    @GroupThreads(1)
+    public void hotHomeworkWrite(Dataset dataset) {
+        int j = ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse);
+        dataset.instructor.assignGrade(dataset.instructorNames[0], dataset.courseNames[0], Dataset.YEAR,
+                dataset.homeworkNames[0], dataset.studentNames[dataset.submitter(0, j)], 50 + j % 50);
+    }
+
+    // The write path alone, on the hot homework's hotSubmitters grades; run with several -p hotSubmitters values to check
+    // that a grade costs the same however many students the homework has
+    @Benchmark
+    public void hotHomeworkGrade(Dataset dataset) {
+        int s = ThreadLocalRandom.current().nextInt(dataset.hotSubmitters);
+        dataset.instructor.assignGrade(dataset.instructorNames[0], dataset.courseNames[0], Dataset.YEAR,
+                dataset.homeworkNames[0], dataset.studentNames[s], 50 + s % 50);
+    }
+}
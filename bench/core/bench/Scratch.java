@@ -0,0 +1,55 @@
+package core.bench;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import core.api.IInstructor;
+import core.api.impl.Admin;
+import core.api.impl.CourseManager;
+import core.api.impl.DataManager;
+import core.api.impl.Instructor;
+
+/**
+ * Empty store for benchmarks that create classes or homeworks. Every created name is new, so the store is
+ * replaced each iteration to keep its size, and the measurement, from drifting over a run.
+ */
+@State(Scope.Benchmark)
+public class Scratch {
+    public static final String COURSE = "Scratch";
+    public static final String INSTRUCTOR = "Instructor";
+
+    public DataManager data;
+    public Admin admin;
+    public CourseManager courseManager;
+    public IInstructor instructor;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        this.data = new DataManager();
+        this.admin = new Admin(this.data);
+        this.courseManager = new CourseManager(this.admin);
+        this.instructor = new Instructor(this.data);
+        this.admin.createClass(COURSE, Dataset.YEAR, INSTRUCTOR, 10);
+        this.counter.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void teardown() throws IOException {
+        this.data.close();
+    }
+
+    /**
+     * @return A name that has not been returned before in this iteration
+     */
+    public String nextName(String prefix) {
+        return prefix + this.counter.getAndIncrement();
+    }
+}
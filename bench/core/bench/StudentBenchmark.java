@@ -0,0 +1,155 @@
+package core.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.api.RegistrationResult;
+import core.api.TranscriptEntry;
+
+/**
+ * {@link core.api.IStudent} operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentBenchmark {
+    /** Registrations per invocation of the loop and batch benchmarks, which report time per registration */
+    static final int BATCH = 64;
+
+    // Registering alone would fill every course, so a visitor registers and drops again
+    @Benchmark
+    public void registerAndDrop(Dataset dataset) {
+        String visitor = dataset.visitorNames[ThreadLocalRandom.current().nextInt(Dataset.VISITORS)];
+        String course = dataset.courseNames[dataset.randomCourse()];
+        dataset.student.registerForClass(visitor, course, Dataset.YEAR);
+        dataset.student.dropClass(visitor, course, Dataset.YEAR);
+    }
+
+    // Same as registerAndDrop through the single-writer pipeline; waits for the drop so the queue cannot overflow
+    @Benchmark
+    public boolean registerAndDropAsync(Dataset dataset) {
+        String visitor = dataset.visitorNames[ThreadLocalRandom.current().nextInt(Dataset.VISITORS)];
+        String course = dataset.courseNames[dataset.randomCourse()];
+        dataset.asyncStudent.registerForClass(visitor, course, Dataset.YEAR);
+        return dataset.asyncStudent.dropClass(visitor, course, Dataset.YEAR).join();
+    }
+
+    // BATCH visitors register for one course one call at a time, then drop again; compare with registerForClasses
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void registerForClassLoop(Dataset dataset) {
+        String course = dataset.courseNames[dataset.randomCourse()];
+        int first = ThreadLocalRandom.current().nextInt(Dataset.VISITORS - BATCH + 1);
+        for (int i = first; i < first + BATCH; i++) {
+            dataset.student.registerForClass(dataset.visitorNames[i], course, Dataset.YEAR);
+        }
+        dropVisitors(dataset, course, first);
+    }
+
+    // The same registrations as registerForClassLoop in one IRegistrar call, which reserves the course's seats once
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public RegistrationResult[] registerForClasses(Dataset dataset) {
+        String course = dataset.courseNames[dataset.randomCourse()];
+        int first = ThreadLocalRandom.current().nextInt(Dataset.VISITORS - BATCH + 1);
+        String[] classes = new String[BATCH];
+        Arrays.fill(classes, course);
+        int[] years = new int[BATCH];
+        Arrays.fill(years, Dataset.YEAR);
+        RegistrationResult[] results = dataset.registrar.registerForClasses(
+                Arrays.copyOfRange(dataset.visitorNames, first, first + BATCH), classes, years);
+        dropVisitors(dataset, course, first);
+        return results;
+    }
+
+    private static void dropVisitors(Dataset dataset, String course, int first) {
+        for (int i = first; i < first + BATCH; i++) {
+            dataset.student.dropClass(dataset.visitorNames[i], course, Dataset.YEAR);
+        }
+    }
+
+    // Already registered: the check and the no-op
+    @Benchmark
+    public void registerForClassRegistered(Dataset dataset) {
+        int s = dataset.randomStudent();
+        dataset.student.registerForClass(dataset.studentNames[s], dataset.courseNames[s % dataset.courses], Dataset.YEAR);
+    }
+
+    // Not registered: nothing to drop
+    @Benchmark
+    public void dropClassNotRegistered(Dataset dataset) {
+        String visitor = dataset.visitorNames[ThreadLocalRandom.current().nextInt(Dataset.VISITORS)];
+        dataset.student.dropClass(visitor, dataset.courseNames[dataset.randomCourse()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public void submitHomework(Dataset dataset) {
+        int c = dataset.randomCourse();
+        String name = dataset.studentNames[dataset.submitter(c, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse))];
+        dataset.student.submitHomework(name, dataset.randomHomework(), "Resubmitted answer", dataset.courseNames[c], Dataset.YEAR);
+    }
+
+    // Resubmissions to the hot homework, which hotSubmitters students have answered; see InstructorBenchmark.hotHomeworkGrade
+    @Benchmark
+    public void hotHomeworkSubmit(Dataset dataset) {
+        String name = dataset.studentNames[ThreadLocalRandom.current().nextInt(dataset.hotSubmitters)];
+        dataset.student.submitHomework(name, dataset.homeworkNames[0], "Resubmitted answer", dataset.courseNames[0], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public List<TranscriptEntry> getTranscript(Dataset dataset) {
+        return dataset.student.getTranscript(dataset.studentNames[dataset.randomStudent()]);
+    }
+
+    @Benchmark
+    public List<TranscriptEntry> getTranscriptForYear(Dataset dataset) {
+        return dataset.student.getTranscript(dataset.studentNames[dataset.randomStudent()], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public boolean isRegisteredFor(Dataset dataset) {
+        int s = dataset.randomStudent();
+        return dataset.student.isRegisteredFor(dataset.studentNames[s], dataset.courseNames[s % dataset.courses], Dataset.YEAR);
+    }
+
+    // Known student, class they are not registered for: answered by the roster filter
+    @Benchmark
+    public boolean isRegisteredForMiss(Dataset dataset) {
+        int s = dataset.randomStudent();
+        int stride = Math.max(1, dataset.courses / dataset.coursesPerStudent);
+        return dataset.student.isRegisteredFor(dataset.studentNames[s], dataset.courseNames[(s + stride / 2) % dataset.courses], Dataset.YEAR);
+    }
+
+    @Benchmark
+    public boolean isRegisteredForById(Dataset dataset) {
+        int s = dataset.randomStudent();
+        return dataset.student.isRegisteredFor(dataset.studentIds[s], dataset.courseIds[s % dataset.courses]);
+    }
+
+    @Benchmark
+    public boolean hasSubmitted(Dataset dataset) {
+        int c = dataset.randomCourse();
+        String name = dataset.studentNames[dataset.submitter(c, ThreadLocalRandom.current().nextInt(dataset.submittersPerCourse))];
+        return dataset.student.hasSubmitted(name, dataset.randomHomework(), dataset.courseNames[c], Dataset.YEAR);
+    }
+
+    // Students only submit in course (id % courses), so the next course always misses
+    @Benchmark
+    public boolean hasSubmittedMiss(Dataset dataset) {
+        int s = dataset.randomStudent();
+        return dataset.student.hasSubmitted(dataset.studentNames[s], dataset.randomHomework(), dataset.courseNames[(s + 1) % dataset.courses], Dataset.YEAR);
+    }
+}
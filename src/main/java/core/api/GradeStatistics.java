@@ -0,0 +1,120 @@
+package core.api;
+
+import java.util.Arrays;
+
+/**
+ * Immutable summary of a set of grades, as returned by {@link IInstructor#getGradeStatistics} and
+ * {@link IInstructor#getCourseGradeStatistics}. Grades from 0 to 100 are kept as a histogram and any others
+ * as a sorted list, so every query is answered exactly and without looking at individual students.
+ */
+public final class GradeStatistics {
+    public static final int MIN_GRADE = 0;
+    public static final int MAX_GRADE = 100;
+
+    private final int[] counts;   // counts[g] = number of grades equal to g, for MIN_GRADE <= g <= MAX_GRADE
+    private final int[] outliers; // grades outside [MIN_GRADE, MAX_GRADE], sorted
+    private final int count;
+    private final long sum;
+
+    /**
+     * @param counts Number of grades equal to each value from {@link #MIN_GRADE} to {@link #MAX_GRADE}; not copied
+     * @param outliers Grades outside that range, in any order; not copied
+     * @param count Total number of grades, including outliers
+     * @param sum Sum of all grades, including outliers
+     */
+    public GradeStatistics(int[] counts, int[] outliers, int count, long sum) {
+        if (counts.length != MAX_GRADE - MIN_GRADE + 1) {
+            throw new IllegalArgumentException("counts must have " + (MAX_GRADE - MIN_GRADE + 1) + " entries");
+        }
+        Arrays.sort(outliers);
+        this.counts = counts;
+        this.outliers = outliers;
+        this.count = count;
+        this.sum = sum;
+    }
+
+    /**
+     * @return Number of graded students
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    public long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * @return The average grade, or NaN if there are no grades
+     */
+    public double getMean() {
+        return this.count == 0 ? Double.NaN : (double) this.sum / this.count;
+    }
+
+    /**
+     * @return The lowest grade, or null if there are no grades
+     */
+    public Integer getMin() {
+        return this.count == 0 ? null : getRank(1);
+    }
+
+    /**
+     * @return The highest grade, or null if there are no grades
+     */
+    public Integer getMax() {
+        return this.count == 0 ? null : getRank(this.count);
+    }
+
+    /**
+     * @return The median grade (lower median for an even count), or null if there are no grades
+     */
+    public Integer getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Nearest-rank percentile: the smallest grade such that at least {@code percentile}% of all grades are at or below it.
+     *
+     * @param percentile Between 0 and 100
+     * @return The grade, or null if there are no grades
+     */
+    public Integer getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (this.count == 0) return null;
+        int rank = (int) Math.max(1, Math.ceil(percentile / 100 * this.count));
+        return getRank(rank);
+    }
+
+    /**
+     * @return Number of grades equal to {@code grade}
+     */
+    public int getCount(int grade) {
+        if (grade >= MIN_GRADE && grade <= MAX_GRADE) return this.counts[grade - MIN_GRADE];
+        int matches = 0;
+        for (int outlier : this.outliers) {
+            if (outlier == grade) matches++;
+        }
+        return matches;
+    }
+
+    // Grade at 1-based position rank in sorted order
+    private int getRank(int rank) {
+        int below = 0;
+        while (below < this.outliers.length && this.outliers[below] < MIN_GRADE) below++;
+        if (rank <= below) return this.outliers[rank - 1];
+        int seen = below;
+        for (int grade = MIN_GRADE; grade <= MAX_GRADE; grade++) {
+            seen += this.counts[grade - MIN_GRADE];
+            if (seen >= rank) return grade;
+        }
+        return this.outliers[below + rank - seen - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "GradeStatistics[count=" + this.count + ", mean=" + getMean() + ", min=" + getMin()
+                + ", median=" + getMedian() + ", max=" + getMax() + "]";
+    }
+}
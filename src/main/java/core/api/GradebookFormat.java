@@ -0,0 +1,25 @@
+package core.api;
+
+/**
+ * Encodings written by {@link IGradebookExporter}. Every gradebook has one row per (student, homework) pair of each
+ * class: the class name, its year, the student, the homework, the grade if any and whether an answer was submitted.
+ * A class's students are everyone enrolled in it plus anyone who has a submission or grade in one of its homeworks.
+ */
+public enum GradebookFormat {
+    /**
+     * UTF-8 text, one header line {@code class,year,student,homework,grade,submitted} and then one line per row, grouped
+     * by class and then by student. Missing grades are empty, submission flags are {@code true} or {@code false}, and
+     * fields containing commas, quotes or line breaks are quoted as in RFC 4180. Lines end with CRLF.
+     */
+    CSV,
+
+    /**
+     * Binary, big-endian, one section per class with every homework stored as a column: {@code int magic ("HWGB"),
+     * int version}, then per class {@code byte 1}, its name, {@code int year}, {@code int n} and the n student names,
+     * {@code int m} and the m homework names, then per homework n {@code int} grades ({@link Integer#MIN_VALUE} if
+     * ungraded) followed by {@code (n + 7) / 8} bytes of submission flags, the flag of student {@code i} being bit
+     * {@code i % 8} of byte {@code i / 8}. A {@code byte 0} ends the gradebook. Strings are an int length followed by
+     * UTF-8 bytes.
+     */
+    COLUMNAR
+}
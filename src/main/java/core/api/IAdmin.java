@@ -25,8 +25,26 @@ public interface IAdmin {
      */
     void changeCapacity(String className, int year, int capacity);
 
+    /**
+     * Like {@link #changeCapacity(String, int, int)}, for the class with id {@code classId} (see {@link ISymbolTable}).
+     */
+    void changeCapacity(int classId, int capacity);
+
+    /**
+     * Close year {@code year} for good: its classes can no longer be created, joined, dropped, changed or graded,
+     * and their data is compacted into a smaller read-only form. Queries keep working as before.
+     *
+     * @param year Year to freeze, normally one that has ended
+     */
+    void freezeYear(int year);
+
 
     // Getters for testing purposes
+    /**
+     * @return Whether year {@code year} has been frozen
+     */
+    boolean isFrozen(int year);
+
     /**
      * @return Whether class {@code className} exists in year {@code year}
      */
@@ -37,8 +55,18 @@ public interface IAdmin {
      */
     String getClassInstructor(String className, int year);
 
+    /**
+     * @return The name of the instructor for the class with id {@code classId}
+     */
+    String getClassInstructor(int classId);
+
     /**
      * @return The capacity (maximum number of enrollees) for class {@code className} in year {@code year}
      */
     int getClassCapacity(String className, int year);
+
+    /**
+     * @return The capacity (maximum number of enrollees) for the class with id {@code classId}
+     */
+    int getClassCapacity(int classId);
 }
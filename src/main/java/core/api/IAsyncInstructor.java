@@ -0,0 +1,17 @@
+package core.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link IInstructor#assignGrade}, applied by the same single writer as {@link IAsyncStudent},
+ * so a grade queued after a submission is applied after it.
+ */
+public interface IAsyncInstructor {
+
+    /**
+     * Queue {@link IInstructor#assignGrade}.
+     *
+     * @return Completes with whether the grade was recorded
+     */
+    CompletableFuture<Boolean> assignGrade(String instructorName, String className, int year, String homeworkName, String studentName, int grade);
+}
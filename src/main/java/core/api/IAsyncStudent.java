@@ -0,0 +1,32 @@
+package core.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the changes offered by {@link IStudent}. Each call queues the change and returns at once;
+ * queued changes are applied in order by a single writer, with the same rules as the blocking calls.
+ * When the queue is full a call waits until the writer has made room.
+ */
+public interface IAsyncStudent {
+
+    /**
+     * Queue {@link IStudent#registerForClass}.
+     *
+     * @return Completes with whether the student was newly registered or put on the waitlist
+     */
+    CompletableFuture<Boolean> registerForClass(String studentName, String className, int year);
+
+    /**
+     * Queue {@link IStudent#dropClass}.
+     *
+     * @return Completes with whether the student was registered and has been dropped
+     */
+    CompletableFuture<Boolean> dropClass(String studentName, String className, int year);
+
+    /**
+     * Queue {@link IStudent#submitHomework}.
+     *
+     * @return Completes with whether the solution was recorded
+     */
+    CompletableFuture<Boolean> submitHomework(String studentName, String homeworkName, String answerString, String className, int year);
+}
@@ -0,0 +1,30 @@
+package core.api;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams gradebooks to a channel without building them in memory: rows are encoded into one bounded buffer that is
+ * written out whenever it fills up, so memory use does not grow with the size of the export.
+ *
+ * Each homework is read as it stands when the export reaches it, so changes made during an export may show up in
+ * some rows and not in others. Export a frozen year (see {@link IAdmin#freezeYear(int)}) for a stable gradebook.
+ * The channel is neither closed nor forced to disk.
+ */
+public interface IGradebookExporter {
+
+    /**
+     * Write the gradebook of class {@code className} in year {@code year} to {@code out}. An unknown class yields a
+     * gradebook without rows.
+     *
+     * @return The number of rows written
+     */
+    long exportClass(String className, int year, GradebookFormat format, WritableByteChannel out) throws IOException;
+
+    /**
+     * Write the gradebooks of every class taught in year {@code year} to {@code out}, in class name order.
+     *
+     * @return The number of rows written
+     */
+    long exportYear(int year, GradebookFormat format, WritableByteChannel out) throws IOException;
+}
@@ -0,0 +1,26 @@
+package core.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Loads course catalogs and enrollment rosters from CSV files of any size.
+ *
+ * Files are UTF-8, one row per line, with fields separated by commas. Fields may be quoted as in RFC 4180, but a
+ * quoted field cannot span lines. A first line naming the columns is skipped, as are blank lines.
+ * Rows are applied in file order through the same checks as {@link IAdmin#createClass} and
+ * {@link IStudent#registerForClass}; a row that breaks a rule is reported and skipped, and the load carries on.
+ */
+public interface IImporter {
+
+    /**
+     * Create the classes listed in {@code file}, with columns {@code class,year,instructor,capacity}.
+     */
+    ImportReport importCatalog(Path file) throws IOException;
+
+    /**
+     * Register the students listed in {@code file}, with columns {@code student,class,year}. Students who find
+     * a class full join its waitlist, which counts as applied.
+     */
+    ImportReport importRoster(Path file) throws IOException;
+}
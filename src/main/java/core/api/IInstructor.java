@@ -1,5 +1,7 @@
 package core.api;
 
+import java.util.Map;
+
 /**
  * Created by Vincent on 21/2/2017.
  */
@@ -28,6 +30,39 @@ public interface IInstructor {
      */
     void assignGrade(String instructorName, String className, int year, String homeworkName, String studentName, int grade);
 
+    /**
+     * Like {@link #assignGrade(String, String, int, String, String, int)}, with ids obtained from {@link ISymbolTable}.
+     */
+    void assignGrade(String instructorName, int classId, int homeworkId, int studentId, int grade);
+
+    /**
+     * Assign every grade in {@code grades} for homework {@code homeworkName} in class {@code className} in one step.
+     * The whole batch is validated first: this instructor must be assigned to the class, the homework must exist,
+     * and every student must have submitted it and receive a grade between 0 and 100.
+     * If any entry fails validation no grade is assigned.
+     *
+     * @param instructorName The name of the instructor who assigns the grades
+     * @param className Name of the class to assign grades for
+     * @param year Year in which said class is taught
+     * @param homeworkName Name of homework to grade
+     * @param grades Percentage grade per student name
+     * @return Whether the batch was valid and has been applied
+     */
+    boolean assignGrades(String instructorName, String className, int year, String homeworkName, Map<String, Integer> grades);
+
+    /**
+     * Statistics are maintained as grades are assigned, so this costs the same for any class size.
+     *
+     * @return Count, mean, min, max and percentiles of the grades given for homework {@code homeworkName} in this class,
+     *         or null if the class or homework does not exist
+     */
+    GradeStatistics getGradeStatistics(String className, int year, String homeworkName);
+
+    /**
+     * @return Statistics of the grades given for every homework of this class, or null if the class does not exist
+     */
+    GradeStatistics getCourseGradeStatistics(String className, int year);
+
 
     // Getters for testing purposes
     /**
@@ -39,4 +74,19 @@ public interface IInstructor {
      * @return The grade for student {@code studentName} on homework {@code homeworkName} for this class, or null if not applicable
      */
     Integer getGrade(String className, int year, String homeworkName, String studentName);
+
+    /**
+     * @return Like {@link #getGrade(String, int, String, String)}, with ids obtained from {@link ISymbolTable}
+     */
+    Integer getGrade(int classId, int homeworkId, int studentId);
+
+    /**
+     * @return The answer student {@code studentName} submitted for homework {@code homeworkName} in this class, or null if not applicable
+     */
+    String getSubmission(String className, int year, String homeworkName, String studentName);
+
+    /**
+     * @return Like {@link #getSubmission(String, int, String, String)}, with ids obtained from {@link ISymbolTable}
+     */
+    String getSubmission(int classId, int homeworkId, int studentId);
 }
@@ -0,0 +1,31 @@
+package core.api;
+
+/**
+ * Bulk counterpart of {@link IStudent#registerForClass} for loading whole rosters at once.
+ * Each entry follows the same rules as a single registration; the result for entry {@code i}
+ * is at index {@code i} of the returned array.
+ */
+public interface IRegistrar {
+
+    /**
+     * Register every student in {@code studentNames} for class {@code className} in year {@code year}.
+     * Seats are handed out in list order until the class is full; the remaining students join its waitlist in list order.
+     *
+     * @param studentNames Names of the students to register
+     * @param className The name of the class to register for
+     * @param year The year in which the class is taught
+     * @return Per-student outcome, in the order of {@code studentNames}
+     */
+    RegistrationResult[] registerForClass(String[] studentNames, String className, int year);
+
+    /**
+     * Register student {@code studentNames[i]} for class {@code classNames[i]} in year {@code years[i]}, for every {@code i}.
+     * All three arrays must have the same length.
+     *
+     * @param studentNames Names of the students to register
+     * @param classNames Names of the classes to register for
+     * @param years Years in which the classes are taught
+     * @return Per-entry outcome, in input order
+     */
+    RegistrationResult[] registerForClasses(String[] studentNames, String[] classNames, int[] years);
+}
@@ -1,5 +1,7 @@
 package core.api;
 
+import java.util.List;
+
 /**
  * Created by Vincent on 21/2/2017.
  */
@@ -8,12 +10,19 @@ public interface IStudent {
     /**
      * Register student {@code studentName} for class {@code className} in year {@code year},
      * provided this class exists and has not met its enrolment capacity.
+     * If the class is full, or other students are already waiting for a seat, the student joins the end of the
+     * class's waitlist instead and is registered automatically once a seat becomes free.
      *
      * @param className The name of the class to register for
      * @param year The year in which the class is taught
      */
     void registerForClass(String studentName, String className, int year);
 
+    /**
+     * Like {@link #registerForClass(String, String, int)}, with ids obtained from {@link ISymbolTable}.
+     */
+    void registerForClass(int studentId, int classId);
+
     /**
      * Drop class {@code className} in year {@code year} for student {@code studentName},
      * provided the student is registered and the class has not ended.
@@ -24,6 +33,11 @@ public interface IStudent {
      */
     void dropClass(String studentName, String className, int year);
 
+    /**
+     * Like {@link #dropClass(String, String, int)}, with ids obtained from {@link ISymbolTable}.
+     */
+    void dropClass(int studentId, int classId);
+
     /**
      * Submit {@code studentName}'s homework solution {@code answerString} for homework {@code homeworkName} of class {@code className},
      * provided homework exists, student is registered and the class is taught in the current year
@@ -36,6 +50,28 @@ public interface IStudent {
      */
     void submitHomework(String studentName, String homeworkName, String answerString, String className, int year);
 
+    /**
+     * Like {@link #submitHomework(String, String, String, String, int)}, with ids obtained from {@link ISymbolTable}.
+     */
+    void submitHomework(int studentId, int homeworkId, String answerString, int classId);
+
+    /**
+     * List every class student {@code studentName} is registered for, with the grades received so far.
+     * The cost depends only on the student's own record, not on the number of classes or students.
+     *
+     * @param studentName Name of the student
+     * @return One entry per class, ordered by year and then class name; empty if the student is unknown
+     */
+    List<TranscriptEntry> getTranscript(String studentName);
+
+    /**
+     * Like {@link #getTranscript(String)}, restricted to the classes taught in {@code year}.
+     *
+     * @param studentName Name of the student
+     * @param year Year in which the classes are taught
+     */
+    List<TranscriptEntry> getTranscript(String studentName, int year);
+
 
     // Getters for testing purposes
     /**
@@ -43,8 +79,29 @@ public interface IStudent {
      */
     boolean isRegisteredFor(String studentName, String className, int year);
 
+    /**
+     * @return Whether the student with id {@code studentId} is registered for the class with id {@code classId}
+     */
+    boolean isRegisteredFor(int studentId, int classId);
+
+    /**
+     * @return Position of student {@code studentName} on the waitlist of this class, 1 being next in line,
+     *         or 0 if the student is not waiting. Cheap enough to poll.
+     */
+    int getWaitlistPosition(String studentName, String className, int year);
+
+    /**
+     * @return Like {@link #getWaitlistPosition(String, String, int)}, with ids obtained from {@link ISymbolTable}
+     */
+    int getWaitlistPosition(int studentId, int classId);
+
     /**
      * @return Whether student {@code studentName} has submitted homework {@code homeworkName} for this class
      */
     boolean hasSubmitted(String studentName, String homeworkName, String className, int year);
+
+    /**
+     * @return Like {@link #hasSubmitted(String, String, String, int)}, with ids obtained from {@link ISymbolTable}
+     */
+    boolean hasSubmitted(int studentId, int homeworkId, int classId);
 }
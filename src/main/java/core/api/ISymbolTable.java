@@ -0,0 +1,28 @@
+package core.api;
+
+/**
+ * Resolves student, class and homework names to the compact int ids taken by the id-based overloads of
+ * {@link IAdmin}, {@link IStudent} and {@link IInstructor}. Callers that issue many calls for the same names
+ * resolve them once and then skip hashing and comparing strings on every call.
+ *
+ * Ids are dense, start at 0 and stay valid for as long as the store keeps its data. They are not persisted:
+ * resolve names again after the store has been reset or reloaded from its journal.
+ * Calls with an id that does not belong to any student, class or homework behave like calls with an unknown name.
+ */
+public interface ISymbolTable {
+
+    /**
+     * @return The id of student {@code studentName}, who becomes known to the store if they were not already
+     */
+    int getStudentId(String studentName);
+
+    /**
+     * @return The id of class {@code className} in year {@code year}, or -1 if the class does not exist
+     */
+    int getClassId(String className, int year);
+
+    /**
+     * @return The id of homework {@code homeworkName} within class {@code classId}, or -1 if either does not exist
+     */
+    int getHomeworkId(int classId, String homeworkName);
+}
@@ -0,0 +1,30 @@
+package core.api;
+
+/**
+ * One row that {@link IImporter} did not apply.
+ */
+public final class ImportRejection {
+    private final long line;
+    private final RejectionReason reason;
+
+    public ImportRejection(long line, RejectionReason reason) {
+        this.line = line;
+        this.reason = reason;
+    }
+
+    /**
+     * @return Line number of the row in its file, starting at 1
+     */
+    public long getLine() {
+        return this.line;
+    }
+
+    public RejectionReason getReason() {
+        return this.reason;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + this.line + ": " + this.reason;
+    }
+}
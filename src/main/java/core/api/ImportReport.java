@@ -0,0 +1,48 @@
+package core.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of loading one file through {@link IImporter}.
+ */
+public final class ImportReport {
+    private final long rows;
+    private final long applied;
+    private final List<ImportRejection> rejections;
+
+    /**
+     * @param rejections Rejected rows in line order
+     */
+    public ImportReport(long rows, long applied, List<ImportRejection> rejections) {
+        this.rows = rows;
+        this.applied = applied;
+        this.rejections = Collections.unmodifiableList(rejections);
+    }
+
+    /**
+     * @return Number of data rows read, not counting the header or blank lines
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return Number of rows that changed the model
+     */
+    public long getApplied() {
+        return this.applied;
+    }
+
+    /**
+     * @return Every row that was not applied and why, in line order
+     */
+    public List<ImportRejection> getRejections() {
+        return this.rejections;
+    }
+
+    @Override
+    public String toString() {
+        return this.applied + " of " + this.rows + " rows applied, " + this.rejections.size() + " rejected";
+    }
+}
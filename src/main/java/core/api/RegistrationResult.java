@@ -0,0 +1,17 @@
+package core.api;
+
+/**
+ * Outcome of a single registration handled by {@link IRegistrar}.
+ */
+public enum RegistrationResult {
+    /** The student was enrolled in the class */
+    REGISTERED,
+    /** The student was already enrolled in the class, nothing changed */
+    ALREADY_REGISTERED,
+    /** The class had no free seat left, so the student was put on its waitlist, or was already on it */
+    WAITLISTED,
+    /** The class does not exist in the given year */
+    NO_SUCH_CLASS,
+    /** The class's year has been frozen, see {@link IAdmin#freezeYear(int)} */
+    CLASS_CLOSED
+}
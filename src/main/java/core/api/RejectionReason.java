@@ -0,0 +1,23 @@
+package core.api;
+
+/**
+ * Why {@link IImporter} did not apply a row.
+ */
+public enum RejectionReason {
+    /** The row does not have the expected number of fields, or a number field is not an integer */
+    MALFORMED,
+    /** The class would be taught in a year that has already passed */
+    PAST_YEAR,
+    /** The class capacity is not positive */
+    INVALID_CAPACITY,
+    /** The instructor already teaches the most classes allowed in that year */
+    INSTRUCTOR_OVERLOADED,
+    /** A class with the same name already exists in that year */
+    DUPLICATE_CLASS,
+    /** The class does not exist in the given year */
+    NO_SUCH_CLASS,
+    /** The student is already enrolled in the class */
+    ALREADY_REGISTERED,
+    /** The year has been frozen, see {@link IAdmin#freezeYear(int)} */
+    YEAR_FROZEN
+}
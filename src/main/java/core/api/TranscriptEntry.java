@@ -0,0 +1,50 @@
+package core.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One course on a student's transcript, as returned by {@link IStudent#getTranscript}.
+ */
+public final class TranscriptEntry {
+    private final String className;
+    private final int year;
+    private final Map<String, Integer> grades;
+
+    /**
+     * @param grades Grade per homework name, for the graded homeworks only, in the order the homeworks were added
+     */
+    public TranscriptEntry(String className, int year, Map<String, Integer> grades) {
+        this.className = className;
+        this.year = year;
+        this.grades = Collections.unmodifiableMap(new LinkedHashMap<>(grades));
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public int getYear() {
+        return this.year;
+    }
+
+    /**
+     * @return Grade per graded homework, in the order the homeworks were added to the class
+     */
+    public Map<String, Integer> getGrades() {
+        return this.grades;
+    }
+
+    /**
+     * @return The grade for homework {@code homeworkName}, or null if it has not been graded
+     */
+    public Integer getGrade(String homeworkName) {
+        return this.grades.get(homeworkName);
+    }
+
+    @Override
+    public String toString() {
+        return this.className + " (" + this.year + ") " + this.grades;
+    }
+}
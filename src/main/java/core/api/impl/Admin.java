@@ -1,44 +1,142 @@
 package core.api.impl;
 
+import java.util.Objects;
+
 import core.api.IAdmin;
+import core.api.RejectionReason;
 
 /**
  * Created by Vincent on 21/2/2017.
  */
 public class Admin implements IAdmin {
 
-    public Admin() {
-        DataManager.reset();
+    private final DataManager data;
+
+    public Admin(DataManager data) {
+        this.data = data;
+    }
+
+    DataManager getDataManager() {
+        return this.data;
     }
 
     @Override
     public void createClass(String className, int year, String instructorName, int capacity) {
-        Course course = new Course(className, year, capacity);
-        DataManager.courseInstructors.put(course, instructorName);
+        tryCreateClass(className, year, instructorName, capacity);
+    }
+
+    /**
+     * Like {@link #createClass(String, int, String, int)}, but tell why the class was not created. This is the only
+     * place the creation rules are checked, so {@link Importer} applies the same rules and statistics as the API.
+     *
+     * @return Null if the class was created
+     */
+    RejectionReason tryCreateClass(String className, int year, String instructorName, int capacity) {
+        return this.data.metrics.time(Operation.ADMIN_CREATE_CLASS,
+                () -> create(className, year, instructorName, capacity), Objects::isNull);
+    }
+
+    private RejectionReason create(String className, int year, String instructorName, int capacity) {
+        if (year < this.data.getCurrentYear()) return RejectionReason.PAST_YEAR;
+        if (capacity <= 0) return RejectionReason.INVALID_CAPACITY;
+        if (addClass(className, year, instructorName, capacity)) return null;
+        if (this.data.isFrozen(year)) return RejectionReason.YEAR_FROZEN;
+        if (this.data.findCourse(className, year) != null) return RejectionReason.DUPLICATE_CLASS;
+        return RejectionReason.INSTRUCTOR_OVERLOADED;
+    }
+
+    /**
+     * Create the class and journal its creation, subject only to the rules of the model itself: the class is new, its
+     * year is open and the instructor is free. The admission rules on year and capacity are left to
+     * {@link #tryCreateClass(String, int, String, int)}, so the journal replays classes it admitted under an earlier
+     * current year.
+     *
+     * @return Whether the class was created
+     */
+    boolean addClass(String className, int year, String instructorName, int capacity) {
+        Course course = new Course(className, year, instructorName, capacity, this.data.submissions);
+        // Locked before it is published, so changes to the new course are journaled after its creation
+        return this.data.journaled(course, journal -> {
+            if (!this.data.addCourse(course)) return false;
+            journal.createClass(className, year, instructorName, capacity);
+            return true;
+        });
     }
 
     @Override
     public void changeCapacity(String className, int year, int capacity) {
-        Course course = DataManager.findCourse(className, year);
-        if (course != null) course.setCapacity(capacity);
+        this.data.metrics.time(Operation.ADMIN_CHANGE_CAPACITY, () -> resize(className, year, capacity));
+    }
+
+    @Override
+    public void changeCapacity(int classId, int capacity) {
+        this.data.metrics.time(Operation.ADMIN_CHANGE_CAPACITY, () -> changeCapacity(this.data.findCourse(classId), capacity));
+    }
+
+    boolean resize(String className, int year, int capacity) {
+        return changeCapacity(this.data.findCourse(className, year), capacity);
+    }
+
+    private boolean changeCapacity(Course course, int capacity) {
+        return course != null && this.data.journaled(course, journal -> {
+            if (!course.setCapacity(capacity)) return false;
+            journal.changeCapacity(course.getName(), course.getYear(), capacity);
+            return true;
+        });
+    }
+
+    @Override
+    public void freezeYear(int year) {
+        this.data.metrics.time(Operation.ADMIN_FREEZE_YEAR, () -> freeze(year));
+    }
+
+    boolean freeze(int year) {
+        return this.data.journaled(this.data.term(year), journal -> {
+            if (!this.data.freezeYear(year)) return false;
+            journal.freezeYear(year);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean isFrozen(int year) {
+        return this.data.metrics.time(Operation.ADMIN_IS_FROZEN, () -> this.data.isFrozen(year));
     }
 
     @Override
     public boolean classExists(String className, int year) {
-        return DataManager.findCourse(className, year) != null;
+        return this.data.metrics.time(Operation.ADMIN_CLASS_EXISTS, () -> this.data.findCourse(className, year) != null);
     }
 
     @Override
     public String getClassInstructor(String className, int year) {
-        Course course = DataManager.findCourse(className, year);
-        if (course == null) return null;
-        return DataManager.courseInstructors.get(course);
+        return this.data.metrics.time(Operation.ADMIN_GET_CLASS_INSTRUCTOR,
+                () -> instructorOf(this.data.findCourse(className, year)), Objects::nonNull);
+    }
+
+    @Override
+    public String getClassInstructor(int classId) {
+        return this.data.metrics.time(Operation.ADMIN_GET_CLASS_INSTRUCTOR,
+                () -> instructorOf(this.data.findCourse(classId)), Objects::nonNull);
+    }
+
+    private static String instructorOf(Course course) {
+        return course == null ? null : course.getInstructor();
     }
 
     @Override
     public int getClassCapacity(String className, int year) {
-        Course course = DataManager.findCourse(className, year);
-        if (course == null) return -1;
-        return course.getCapacity();
+        return this.data.metrics.time(Operation.ADMIN_GET_CLASS_CAPACITY,
+                () -> capacityOf(this.data.findCourse(className, year)), capacity -> capacity >= 0);
+    }
+
+    @Override
+    public int getClassCapacity(int classId) {
+        return this.data.metrics.time(Operation.ADMIN_GET_CLASS_CAPACITY,
+                () -> capacityOf(this.data.findCourse(classId)), capacity -> capacity >= 0);
+    }
+
+    private static int capacityOf(Course course) {
+        return course == null ? -1 : course.getCapacity();
     }
 }
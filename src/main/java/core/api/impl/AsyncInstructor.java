@@ -0,0 +1,25 @@
+package core.api.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import core.api.IAsyncInstructor;
+
+/**
+ * Queues grades on the store's {@link CommandPipeline}; the writer applies them through {@link Instructor}.
+ */
+public class AsyncInstructor implements IAsyncInstructor {
+
+    private final DataManager data;
+    private final Instructor instructor;
+
+    public AsyncInstructor(DataManager data) {
+        this.data = data;
+        this.instructor = new Instructor(data);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> assignGrade(String instructorName, String className, int year, String homeworkName, String studentName, int grade) {
+        return this.data.pipeline().submit(this.data.metrics.get(Operation.ASYNC_INSTRUCTOR_ASSIGN_GRADE),
+                () -> this.instructor.grade(instructorName, className, year, homeworkName, studentName, grade));
+    }
+}
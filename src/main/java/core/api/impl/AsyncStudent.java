@@ -0,0 +1,37 @@
+package core.api.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import core.api.IAsyncStudent;
+
+/**
+ * Queues student changes on the store's {@link CommandPipeline}; the writer applies them through {@link Student}.
+ */
+public class AsyncStudent implements IAsyncStudent {
+
+    private final DataManager data;
+    private final Student student;
+
+    public AsyncStudent(DataManager data) {
+        this.data = data;
+        this.student = new Student(data);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerForClass(String studentName, String className, int year) {
+        return this.data.pipeline().submit(this.data.metrics.get(Operation.ASYNC_STUDENT_REGISTER_FOR_CLASS),
+                () -> this.student.register(studentName, className, year));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> dropClass(String studentName, String className, int year) {
+        return this.data.pipeline().submit(this.data.metrics.get(Operation.ASYNC_STUDENT_DROP_CLASS),
+                () -> this.student.drop(studentName, className, year));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> submitHomework(String studentName, String homeworkName, String answerString, String className, int year) {
+        return this.data.pipeline().submit(this.data.metrics.get(Operation.ASYNC_STUDENT_SUBMIT_HOMEWORK),
+                () -> this.student.submit(studentName, homeworkName, answerString, className, year));
+    }
+}
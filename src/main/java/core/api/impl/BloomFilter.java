@@ -0,0 +1,86 @@
+package core.api.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 32-bit keys, used to answer "definitely not" without touching a roster or submission map.
+ *
+ * The filter is sized once, for {@code expected} keys at about {@value #BITS_PER_KEY} bits per key, which gives
+ * roughly a 1% false positive rate, and holds nothing but its bits. Keys cannot be removed, and the filter does not
+ * remember them: once it is {@linkplain #isSaturated() saturated} its owner replaces it with one built from the
+ * authoritative set of members.
+ *
+ * Adds are serialized on the filter; {@link #mightContain(int)} never locks. A key is visible to readers once
+ * {@link #add(int)} has returned.
+ */
+class BloomFilter {
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+    private static final int MAX_WORDS = 1 << 20; // 8 MiB of bits
+
+    private final AtomicLongArray bits;
+    private final int expected;
+    private int size; // guarded by this
+
+    BloomFilter(int expected) {
+        this.expected = Math.max(1, expected);
+        this.bits = new AtomicLongArray(words(this.expected));
+    }
+
+    /**
+     * @return False if {@code key} has certainly never been added; true if it probably has
+     */
+    boolean mightContain(int key) {
+        AtomicLongArray bits = this.bits;
+        int mask = (bits.length() << 6) - 1;
+        int h1 = mix(key);
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    synchronized void add(int key) {
+        set(this.bits, key);
+        this.size++;
+    }
+
+    /**
+     * @return Whether more keys have been added, counting repeats, than the filter was sized for, so that its false
+     *         positive rate is climbing above the one it was built for
+     */
+    synchronized boolean isSaturated() {
+        return this.size > this.expected;
+    }
+
+    private static void set(AtomicLongArray bits, int key) {
+        int mask = (bits.length() << 6) - 1;
+        int h1 = mix(key);
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            long word = bits.get(bit >>> 6);
+            if ((word & (1L << bit)) == 0) bits.set(bit >>> 6, word | (1L << bit));
+        }
+    }
+
+    // Number of 64-bit words for expected keys, rounded up to a power of two so bits can be masked
+    private static int words(int expected) {
+        long wanted = ((long) expected * BITS_PER_KEY + 63) >>> 6;
+        int words = 1;
+        while (words < wanted && words < MAX_WORDS) words <<= 1;
+        return words;
+    }
+
+    // Murmur3 finalizer, spreads keys such as String hash codes that differ in few bits
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,139 @@
+package core.api.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered, big-endian writer onto a {@link WritableByteChannel}. Everything goes through one fixed-size buffer that
+ * is written to the channel whenever the next value does not fit, so output of any length takes constant memory.
+ * The buffer is supplied by the caller, so it can be reused across outputs; see {@link #allocate(int)}.
+ * Strings are encoded straight into the buffer, without intermediate byte arrays.
+ *
+ * Not thread-safe.
+ */
+class ChannelOutput {
+    static final int DEFAULT_BUFFER_SIZE = 64 << 10;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * @param buffer Buffer to write through, from {@link #allocate(int)}; owned by this output until it is flushed
+     */
+    ChannelOutput(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.buffer.clear();
+    }
+
+    /**
+     * @return A direct buffer of {@code bufferSize} bytes, or the smallest size every value fits in
+     */
+    static ByteBuffer allocate(int bufferSize) {
+        return ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+    }
+
+    ChannelOutput writeByte(int value) throws IOException {
+        ensure(1);
+        this.buffer.put((byte) value);
+        return this;
+    }
+
+    ChannelOutput writeInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        this.buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Write {@code value} in decimal ASCII digits.
+     */
+    ChannelOutput writeDecimal(int value) throws IOException {
+        ensure(11);
+        if (value == Integer.MIN_VALUE) return writeAscii("-2147483648");
+        if (value < 0) {
+            this.buffer.put((byte) '-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (divisor <= value / 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) this.buffer.put((byte) ('0' + value / divisor % 10));
+        return this;
+    }
+
+    /**
+     * Write the characters of {@code value}, which must all be ASCII, one byte each.
+     */
+    ChannelOutput writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            if (!this.buffer.hasRemaining()) drain();
+            this.buffer.put((byte) value.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Write {@code value} as UTF-8, without a length.
+     */
+    ChannelOutput writeUtf8(CharSequence value) throws IOException {
+        CharBuffer in = CharBuffer.wrap(value);
+        this.encoder.reset();
+        while (this.encoder.encode(in, this.buffer, true) == CoderResult.OVERFLOW) drain();
+        while (this.encoder.flush(this.buffer) == CoderResult.OVERFLOW) drain();
+        return this;
+    }
+
+    /**
+     * Write {@code value} as an int byte length followed by its UTF-8 bytes.
+     */
+    ChannelOutput writeString(String value) throws IOException {
+        writeInt(utf8Length(value));
+        return writeUtf8(value);
+    }
+
+    /**
+     * Write everything still buffered to the channel.
+     */
+    void flush() throws IOException {
+        drain();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) drain();
+    }
+
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) this.channel.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++; // unpaired, replaced with '?' by the encoder
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
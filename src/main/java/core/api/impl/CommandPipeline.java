@@ -0,0 +1,139 @@
+package core.api.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Funnels queued changes through a bounded ring buffer to a single writer thread.
+ *
+ * The writer takes whatever has been queued, up to {@link #MAX_BATCH} changes at a time, applies them in queue order
+ * and only then completes their futures, so callbacks never delay the next change of the batch.
+ * Callers block in {@link #submit(OperationStats, BooleanSupplier)} while the buffer is full.
+ * The statistics of each change measure the time from queueing to being applied.
+ */
+class CommandPipeline {
+    static final int DEFAULT_CAPACITY = 1 << 14;
+    static final int MAX_BATCH = 256;
+
+    private static final Command STOP = new Command(null, null);
+
+    private final BlockingQueue<Command> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    CommandPipeline(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::run, "command-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue {@code change} to be applied by the writer thread.
+     *
+     * @param change Applies the change and returns whether it took effect
+     * @return Completes with the result of {@code change}, or exceptionally if it threw or the pipeline is closed
+     */
+    CompletableFuture<Boolean> submit(OperationStats stats, BooleanSupplier change) {
+        Command command = new Command(stats, change);
+        if (this.closed) {
+            command.reject();
+            return command.result;
+        }
+        try {
+            this.queue.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.result.completeExceptionally(e);
+            return command.result;
+        }
+        // Raced with close(): whoever removes the command from the queue completes it
+        if (this.closed && this.queue.remove(command)) command.reject();
+        return command.result;
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(this.queue.take());
+            } catch (InterruptedException e) {
+                continue; // Only close() stops the writer
+            }
+            this.queue.drainTo(batch, MAX_BATCH - 1);
+            for (Command command : batch) {
+                if (command == STOP) stopping = true;
+                else command.apply();
+            }
+            for (Command command : batch) {
+                if (command != STOP) command.complete();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Apply every change already queued, stop the writer and reject all later changes.
+     */
+    synchronized void close() {
+        if (this.closed) return;
+        this.closed = true;
+        boolean interrupted = false;
+        while (!this.queue.offer(STOP)) {
+            Thread.yield(); // The writer is draining the full buffer
+        }
+        while (this.writer.isAlive()) {
+            try {
+                this.writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        Command command;
+        while ((command = this.queue.poll()) != null) command.reject();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * One queued change and its outcome.
+     */
+    private static final class Command {
+        private final OperationStats stats;
+        private final BooleanSupplier change;
+        private final long start;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private boolean applied;
+        private RuntimeException failure;
+
+        Command(OperationStats stats, BooleanSupplier change) {
+            this.stats = stats;
+            this.change = change;
+            this.start = System.nanoTime();
+        }
+
+        void apply() {
+            try {
+                this.applied = this.change.getAsBoolean();
+                this.stats.record(this.start, this.applied);
+            } catch (RuntimeException e) {
+                this.failure = e;
+                this.stats.fail(this.start);
+            }
+        }
+
+        void complete() {
+            if (this.failure != null) this.result.completeExceptionally(this.failure);
+            else this.result.complete(this.applied);
+        }
+
+        void reject() {
+            this.result.completeExceptionally(new RejectedExecutionException("Command pipeline is closed"));
+        }
+    }
+}
@@ -1,66 +1,392 @@
 package core.api.impl;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import core.api.GradeStatistics;
 
 /**
  * Created by Vincent on 22/2/2017.
+ *
+ * Safe for concurrent use: enrollment and homework lookups go through concurrent collections and never lock.
+ * Writers lock this course's monitor to add a homework, and a homework's monitor to change it (see {@link Homework}).
+ * Capacity and the number of occupied seats share one atomic word, so seats are reserved with a single
+ * compare-and-set and capacity can never drop below enrollment.
+ *
+ * Students who find the course full join its {@link Waitlist}. Whenever seats free up, through a drop or a higher
+ * capacity, the students at the head of the waitlist are promoted in one step: the seats for all of them are reserved
+ * with a single compare-and-set and they are enrolled in waitlist order. Newcomers never jump the queue.
+ *
+ * A {@link BloomFilter} of enrolled students' names lets membership queries for students who never enrolled be answered
+ * without looking the student up. It is sized from the capacity. Once more keys have been added than it was sized for,
+ * by enrollments or by the stale keys that drops leave behind, it is rebuilt from the roster with room for twice as many
+ * students as are enrolled.
+ *
+ * Once {@link #freeze()} has been called every mutation is refused, the waitlist is discarded, and the roster and each homework's
+ * submissions and grades are kept as sorted arrays instead of hash sets and maps.
  */
 class Course {
+    private static final int MIN_FILTER_KEYS = 16;
+
+    private final CourseKey key;
+    private volatile int id = -1; // assigned by the CourseRegistry once the course is added
     private final String name;
     private final int year;
-    private int capacity;
+    private final String instructor;
+    private final AtomicLong seats; // capacity in the high 32 bits, occupied seats in the low 32 bits
+    private final FreezeGuard guard;
+
+    private final Map<String, Homework> homeworks;
+    private final List<Homework> homeworksByOrdinal;
+    private volatile Set<Enrollee> enrollees; // null once frozen
+    private int[] roster;                     // sorted student ids, written before enrollees is cleared
+    private volatile BloomFilter members;     // name hashes of enrolled students, plus stale ones of dropped students
+    private final Object membersLock = new Object();
+    private final Waitlist waitlist;
+    private final SubmissionStore submissions;
+    private final GradeDistribution grades; // every grade of every homework
+    private final OrdinalIndex students;    // ordinals keying every homework's submissions and grades
 
-    private Set<Homework> homeworks;
-    private Set<Enrollee> enrollees;
+    protected Course(String name, int year, String instructor, int capacity, SubmissionStore submissions) {
+        this.key = new CourseKey(name, year);
+        this.name = name;
+        this.year = year;
+        this.instructor = instructor;
+        this.seats = new AtomicLong(pack(capacity, 0));
+        this.guard = new FreezeGuard();
 
-    protected Course(String name, int year) {
-        this(name, year, 0);
+        this.homeworks = new ConcurrentHashMap<>();
+        this.homeworksByOrdinal = new CopyOnWriteArrayList<>();
+        this.enrollees = ConcurrentHashMap.newKeySet();
+        this.members = new BloomFilter(Math.max(MIN_FILTER_KEYS, Math.min(capacity, 1 << 16)));
+        this.waitlist = new Waitlist();
+        this.submissions = submissions;
+        this.grades = new GradeDistribution();
+        this.students = new OrdinalIndex();
     }
 
+    protected CourseKey getKey() {
+        return this.key;
+    }
 
-    protected Course(String name, int year, int capacity) {
-        this.name = name;
-        this.year = year;
-        this.capacity = capacity;
+    /**
+     * @return Dense id assigned by the {@link CourseRegistry}, or -1 if none has been assigned yet
+     */
+    protected int getId() {
+        return this.id;
+    }
 
-        this.homeworks = new HashSet<>();
-        this.enrollees = new HashSet<>();
+    protected void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getYear() {
+        return this.year;
+    }
+
+    public String getInstructor() {
+        return this.instructor;
     }
 
     public int getCapacity() {
-        return this.capacity;
+        return capacityOf(this.seats.get());
     }
 
-    protected void addStudent(Enrollee enrollee) {
-        this.enrollees.add(enrollee);
+    /**
+     * @return Number of seats currently taken
+     */
+    protected int getEnrolledCount() {
+        return enrolledOf(this.seats.get());
     }
 
-    protected void removeStudent(Enrollee enrollee) {
-        this.enrollees.remove(enrollee);
+    /**
+     * Enroll {@code enrollee}, provided a seat is free, nobody is waiting for one and they are not already enrolled.
+     * The student's own course index is updated in the same step.
+     *
+     * @return Whether the student was newly enrolled
+     */
+    protected boolean addStudent(Enrollee enrollee) {
+        if (!this.waitlist.isEmpty() || reserveSeats(1) == 0) return false;
+        if (!addReservedStudent(enrollee)) {
+            releaseSeats(1);
+            return false;
+        }
+        return true;
     }
 
-    protected Set<Enrollee> getEnrollees() {
-        return this.enrollees;
+    /**
+     * Enroll {@code enrollee} into a seat previously obtained from {@link #reserveSeats(int)}.
+     * If they are already enrolled the seat stays reserved for the caller to reuse or release.
+     *
+     * @return Whether the student was newly enrolled
+     */
+    protected boolean addReservedStudent(Enrollee enrollee) {
+        if (!this.guard.enter()) return false;
+        try {
+            if (!this.enrollees.add(enrollee)) return false;
+            enrollee.addCourse(this);
+            remember(enrollee);
+            return true;
+        } finally {
+            this.guard.exit();
+        }
     }
 
-    protected void addHomework(Homework homework) {
-        this.homeworks.add(homework);
+    /**
+     * Remove {@code enrollee} from the roster and from the student's own course index, or from the waitlist.
+     * A freed seat goes to the first student on the waitlist.
+     *
+     * @return Whether {@code enrollee} was enrolled or waiting and has been removed
+     */
+    protected boolean removeStudent(Enrollee enrollee) {
+        if (!this.guard.enter()) return false;
+        try {
+            if (!this.enrollees.remove(enrollee)) return this.waitlist.remove(enrollee);
+            enrollee.dropCourse(this);
+        } finally {
+            this.guard.exit();
+        }
+        releaseSeats(1);
+        return true;
+    }
+
+    /**
+     * Put {@code enrollee} at the end of the waitlist, unless they are enrolled or already waiting.
+     * If seats have freed up in the meantime they are promoted right away.
+     *
+     * @return Whether the student joined the waitlist
+     */
+    protected boolean addWaiting(Enrollee enrollee) {
+        if (!this.guard.enter()) return false;
+        try {
+            if (this.enrollees.contains(enrollee) || !this.waitlist.add(enrollee)) return false;
+        } finally {
+            this.guard.exit();
+        }
+        promote();
+        return true;
+    }
+
+    /**
+     * @return Position of {@code enrollee} on the waitlist, starting at 1, or 0 if they are not waiting
+     */
+    protected int getWaitlistPosition(Enrollee enrollee) {
+        return this.waitlist.position(enrollee);
+    }
+
+    /**
+     * @return Whether any student is waiting for a seat
+     */
+    protected boolean hasWaitlist() {
+        return !this.waitlist.isEmpty();
+    }
+
+    /**
+     * @return Ids of the waiting students, first in line first
+     */
+    protected int[] getWaitlistIds() {
+        return this.waitlist.getIds();
+    }
+
+    /**
+     * Fill free seats from the head of the waitlist, reserving all of them in one step. A student who cannot take their
+     * seat, because they enrolled meanwhile, passes it on to the next in line; seats still unfilled when the waitlist
+     * runs out or the course is frozen are released, which runs promotion again.
+     */
+    private void promote() {
+        if (this.waitlist.isEmpty()) return;
+        int unfilled;
+        synchronized (this.waitlist) {
+            unfilled = reserveSeats(this.waitlist.size());
+            while (unfilled > 0 && !isFrozen()) {
+                Enrollee next = this.waitlist.poll();
+                if (next == null) break;
+                if (addReservedStudent(next)) unfilled--;
+            }
+        }
+        releaseSeats(unfilled);
+    }
+
+    // Caller is inside the guard, so the roster is still open
+    private void remember(Enrollee enrollee) {
+        synchronized (this.membersLock) {
+            BloomFilter current = this.members;
+            current.add(enrollee.getName().hashCode());
+            if (current.isSaturated()) {
+                // Students enrolling concurrently add themselves to the rebuilt filter once they get the lock
+                this.members = filterOf(this.enrollees, 2 * this.enrollees.size());
+            }
+        }
+    }
+
+    private static BloomFilter filterOf(Iterable<Enrollee> enrolled, int count) {
+        BloomFilter filter = new BloomFilter(Math.max(MIN_FILTER_KEYS, count));
+        for (Enrollee enrollee : enrolled) filter.add(enrollee.getName().hashCode());
+        return filter;
+    }
+
+    /**
+     * @return False if no student named {@code studentName} is enrolled; true if one might be
+     */
+    protected boolean mightBeEnrolled(String studentName) {
+        return this.members.mightContain(studentName.hashCode());
+    }
+
+    protected boolean isEnrolled(Enrollee enrollee) {
+        Set<Enrollee> open = this.enrollees;
+        if (open != null) return open.contains(enrollee);
+        return Arrays.binarySearch(this.roster, enrollee.getId()) >= 0;
+    }
+
+    /**
+     * @return Ids of the enrolled students
+     */
+    protected int[] getEnrolleeIds() {
+        Set<Enrollee> open = this.enrollees;
+        if (open != null) return open.stream().mapToInt(Enrollee::getId).toArray();
+        return this.roster.clone();
+    }
+
+    /**
+     * Add homework {@code name} to this course, unless a homework with that name already exists.
+     *
+     * @return The homework named {@code name}, or null if it does not exist and the course is frozen
+     */
+    protected synchronized Homework addHomework(String name) {
+        Homework homework = this.homeworks.get(name);
+        if (homework != null) return homework;
+        if (!this.guard.enter()) return null;
+        try {
+            homework = new Homework(name, this.homeworksByOrdinal.size(), this.submissions, this.guard, this.students, this.grades);
+            this.homeworks.put(name, homework);
+            this.homeworksByOrdinal.add(homework);
+            return homework;
+        } finally {
+            this.guard.exit();
+        }
     }
 
     protected Homework getHomework(String name) {
-        for (Homework hw : this.homeworks) {
-            if (hw.getName().equals(name)) return hw;
+        return this.homeworks.get(name);
+    }
+
+    /**
+     * @return The homework with ordinal {@code ordinal}, or null if there is none
+     */
+    protected Homework getHomework(int ordinal) {
+        if (ordinal < 0 || ordinal >= this.homeworksByOrdinal.size()) return null;
+        return this.homeworksByOrdinal.get(ordinal);
+    }
+
+    protected int getHomeworkCount() {
+        return this.homeworksByOrdinal.size();
+    }
+
+    /**
+     * @return Statistics of all grades given in any homework of this course
+     */
+    protected GradeStatistics getGradeStatistics() {
+        return this.grades.snapshot();
+    }
+
+    /**
+     * Change the capacity of this course, provided it is at least the number of seats taken.
+     *
+     * @return Whether the capacity was changed
+     */
+    protected boolean setCapacity(int capacity) {
+        if (!this.guard.enter()) return false;
+        try {
+            while (true) {
+                long current = this.seats.get();
+                int enrolled = enrolledOf(current);
+                if (capacity < enrolled) return false;
+                if (this.seats.compareAndSet(current, pack(capacity, enrolled))) break;
+            }
+        } finally {
+            this.guard.exit();
+        }
+        promote();
+        return true;
+    }
+
+    /**
+     * Reserve up to {@code wanted} free seats in one step.
+     *
+     * @return The number of seats actually reserved, between 0 and {@code wanted}
+     */
+    protected int reserveSeats(int wanted) {
+        if (!this.guard.enter()) return 0;
+        try {
+            while (true) {
+                long current = this.seats.get();
+                int free = capacityOf(current) - enrolledOf(current);
+                int granted = Math.min(wanted, free);
+                if (granted <= 0) return 0;
+                if (this.seats.compareAndSet(current, current + granted)) return granted;
+            }
+        } finally {
+            this.guard.exit();
         }
-        return null;
     }
 
-    protected void setCapacity(int capacity) {
-        this.capacity = capacity;
+    /**
+     * Give back {@code count} seats obtained from {@link #reserveSeats(int)} that were not used.
+     * They go to the waitlist first.
+     */
+    protected void releaseSeats(int count) {
+        if (count <= 0) return;
+        this.seats.addAndGet(-count);
+        promote();
+    }
+
+    protected boolean isFrozen() {
+        return this.guard.isFrozen();
+    }
+
+    /**
+     * Refuse all further changes, waiting for changes in flight, and compact the roster and every homework.
+     *
+     * @return The enrolled students, or null if the course was already frozen
+     */
+    protected Enrollee[] freeze() {
+        if (!this.guard.freeze()) return null;
+        this.waitlist.clear();
+        Set<Enrollee> open = this.enrollees;
+        Enrollee[] enrolled = open.toArray(new Enrollee[0]);
+        int[] roster = new int[enrolled.length];
+        for (int i = 0; i < enrolled.length; i++) roster[i] = enrolled[i].getId();
+        Arrays.sort(roster);
+        for (Homework homework : this.homeworksByOrdinal) homework.freeze();
+        this.members = filterOf(Arrays.asList(enrolled), enrolled.length);
+        this.roster = roster;
+        this.enrollees = null;
+        return enrolled;
+    }
+
+    private static long pack(int capacity, int enrolled) {
+        return ((long) capacity << 32) | (enrolled & 0xFFFFFFFFL);
+    }
+
+    private static int capacityOf(long seats) {
+        return (int) (seats >> 32);
+    }
+
+    private static int enrolledOf(long seats) {
+        return (int) seats;
     }
 
     public int hashCode() {
-        return this.name.hashCode() * 31 + Integer.hashCode(this.year);
+        return this.key.hashCode();
     }
 
     public boolean equals(Object other) {
@@ -0,0 +1,35 @@
+package core.api.impl;
+
+/**
+ * Composite (name, year) key: a class in the course catalog, or an instructor in the per-year course-load index.
+ */
+final class CourseKey {
+    private final String name;
+    private final int year;
+    private final int hash;
+
+    CourseKey(String name, int year) {
+        this.name = name;
+        this.year = year;
+        this.hash = name.hashCode() * 31 + Integer.hashCode(year);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getYear() {
+        return this.year;
+    }
+
+    public int hashCode() {
+        return this.hash;
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) return true;
+        if (!(other instanceof CourseKey)) return false;
+        CourseKey asKey = (CourseKey) other;
+        return asKey.year == this.year && asKey.name.equals(this.name);
+    }
+}
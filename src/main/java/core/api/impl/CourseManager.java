@@ -5,28 +5,33 @@ import core.api.ICourseManager;
 public class CourseManager implements ICourseManager {
 	
 	private Admin admin;
+	private Metrics metrics;
 	
 	public CourseManager(Admin admin) {
-		DataManager.reset();
 		this.admin = admin;
+		this.metrics = admin.getDataManager().metrics;
 	}
 	
 	public void createClass(String name, int year, String instructor, int capacity) {
-		if (year > 2017) 	 return;
-		if (capacity > 1000) return;
-		this.admin.createClass(name, year, instructor, capacity);
+		this.metrics.time(Operation.COURSE_MANAGER_CREATE_CLASS, () -> {
+			if (year > 2017 || capacity > 1000) return false;
+			// Counted as applied only if the admin created the class, not when it refused it for its own reasons
+			return this.admin.tryCreateClass(name, year, instructor, capacity) == null;
+		});
 	}
 	
 	public boolean classExists(String name, int year) {
-		return this.admin.classExists(name, year);
+		return this.metrics.time(Operation.COURSE_MANAGER_CLASS_EXISTS, () -> this.admin.classExists(name, year));
 	}
 	
 	public String getClassInstructor(String className, int year) {
-		return this.admin.getClassInstructor(className, year);
+		return this.metrics.time(Operation.COURSE_MANAGER_GET_CLASS_INSTRUCTOR,
+				() -> this.admin.getClassInstructor(className, year), instructor -> instructor != null);
 	}
 	
 	public int getClassCapacity(String className, int year) {
-		return this.admin.getClassCapacity(className, year);
+		return this.metrics.time(Operation.COURSE_MANAGER_GET_CLASS_CAPACITY,
+				() -> this.admin.getClassCapacity(className, year), capacity -> capacity >= 0);
 	}
 
 }
@@ -0,0 +1,54 @@
+package core.api.impl;
+
+import java.util.Arrays;
+
+/**
+ * Gives every course a stable, dense id, in the order the courses were created, so id-based calls can find a course
+ * with an array read instead of hashing its name.
+ *
+ * Lookups never lock; only assigning an id takes the registry's monitor.
+ */
+class CourseRegistry {
+    private volatile Course[] byId;
+    private volatile int size;
+
+    protected CourseRegistry() {
+        this.byId = new Course[16];
+        this.size = 0;
+    }
+
+    /**
+     * @return The id of {@code course}, assigning the next one if it has none yet
+     */
+    protected int register(Course course) {
+        int id = course.getId();
+        if (id >= 0) return id;
+        synchronized (this) {
+            id = course.getId();
+            if (id >= 0) return id;
+            id = this.size;
+            Course[] ids = this.byId;
+            if (id == ids.length) {
+                ids = Arrays.copyOf(ids, id * 2);
+            }
+            ids[id] = course;
+            course.setId(id);
+            this.byId = ids;
+            this.size = id + 1;
+            return id;
+        }
+    }
+
+    /**
+     * @return The course with id {@code id}, or null if no such course exists
+     */
+    protected Course get(int id) {
+        if (id < 0 || id >= this.size) return null;
+        return this.byId[id];
+    }
+
+    protected synchronized void clear() {
+        Arrays.fill(this.byId, 0, this.size, null);
+        this.size = 0;
+    }
+}
@@ -1,37 +1,288 @@
 package core.api.impl;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import javax.management.JMException;
 
 /**
  * Created by Vincent on 22/2/2017.
+ *
+ * One independent data store. Every {@link Admin}, {@link Student}, {@link Instructor} and {@link Registrar}
+ * is bound to the store passed to its constructor, so a process can host any number of isolated stores.
+ *
+ * Courses are partitioned by year into {@link Term}s. A past year can be frozen, which makes its courses read-only
+ * and compacts them (see {@link #freezeYear(int)}); other years stay open to changes.
+ *
+ * All indexes are concurrent, so the APIs bound to a store may be called from any number of threads.
+ * Reads never take a lock: they see either the version of a roster, submission map or grade map from before
+ * a concurrent change or the one after it, never a partly applied change.
+ * {@link #reset()} is not meant to race with other calls.
+ *
+ * Every journaled mutation goes through {@link #journaled(Object, Function)}, which applies it and records it under
+ * one monitor: the course's for changes to a course, the new course's for creating it, and the term's for freezing,
+ * which also takes the monitor of each course it freezes. Changes that depend on each other are therefore journaled
+ * in the order they took effect. Journaled mutations also share a read lock that {@link #checkpoint(Path)} takes
+ * exclusively while it captures the model. Locks are taken in the order: that gate, term, course, then the course's own locks.
  */
-public class DataManager {
+public class DataManager implements Closeable {
+    /** Most courses one instructor may teach in a single year */
+    public static final int MAX_COURSES_PER_INSTRUCTOR = 2;
+    /** Year treated as the current one until {@link #setCurrentYear(int)} is called */
+    public static final int DEFAULT_CURRENT_YEAR = 2017;
+
+    final StudentRegistry students;
+    final Map<Integer, Term> terms;
+    final CourseRegistry courseIds;
+    final Map<CourseKey, AtomicInteger> instructorLoads; // (instructorName, year) -> number of courses taught
+    final SubmissionStore submissions;
+    final Metrics metrics;
+    volatile Journal journal;
+    private CommandPipeline pipeline; // guarded by this, started by the first queued change
+    private volatile int currentYear = DEFAULT_CURRENT_YEAR;
+    private final ReadWriteLock gate = new ReentrantReadWriteLock(); // shared by journaled mutations, exclusive for checkpoints
+
+    public DataManager() {
+        this.students = new StudentRegistry();
+        this.terms = new ConcurrentHashMap<>();
+        this.courseIds = new CourseRegistry();
+        this.instructorLoads = new ConcurrentHashMap<>();
+        this.submissions = SubmissionStore.createTemporary();
+        this.metrics = new Metrics();
+        this.journal = Journal.DISABLED;
+    }
+
+    /**
+     * Set the year classes may no longer be created before. Classes that already exist are kept.
+     */
+    public void setCurrentYear(int year) {
+        this.currentYear = year;
+    }
+
+    public int getCurrentYear() {
+        return this.currentYear;
+    }
+
+    Course findCourse(String name, int year) {
+        Term term = this.terms.get(year);
+        return term == null ? null : term.get(name);
+    }
+
+    /**
+     * @return The course with id {@code id}, or null if there is none
+     */
+    Course findCourse(int id) {
+        return this.courseIds.get(id);
+    }
+
+    /**
+     * Add {@code course} unless a course with the same name and year exists, its year is frozen, or its
+     * instructor already teaches {@link #MAX_COURSES_PER_INSTRUCTOR} courses that year.
+     * The instructor's load is reserved with a compare-and-set before the course is published and released again
+     * if the name turns out to be taken, so concurrent creations can never exceed the limit.
+     *
+     * @return Whether the course was added
+     */
+    boolean addCourse(Course course) {
+        AtomicInteger load = this.instructorLoads.computeIfAbsent(new CourseKey(course.getInstructor(), course.getYear()), key -> new AtomicInteger());
+        int taught;
+        do {
+            taught = load.get();
+            if (taught >= MAX_COURSES_PER_INSTRUCTOR) return false;
+        } while (!load.compareAndSet(taught, taught + 1));
+
+        if (!term(course.getYear()).add(course)) {
+            load.decrementAndGet();
+            return false;
+        }
+        this.courseIds.register(course);
+        return true;
+    }
+
+    /**
+     * Make every course of {@code year} read-only and compact it: rosters, submissions and grades become sorted
+     * arrays and each student's course index for the year becomes an array. Changes already in progress finish first;
+     * every later change to the year, including creating a class in it, is refused. Reads are unaffected.
+     *
+     * @return False if the year was already frozen
+     */
+    boolean freezeYear(int year) {
+        return term(year).freeze();
+    }
+
+    /**
+     * @return The term of {@code year}, created if there is none yet
+     */
+    Term term(int year) {
+        return this.terms.computeIfAbsent(year, Term::new);
+    }
 
-    static Set<Enrollee> enrollees = new HashSet<>();
-    static Map<Course, String> courseInstructors = new HashMap<>();
+    /**
+     * Apply a mutation and record it in the journal as one step, holding {@code lock} for both so that mutations
+     * serialized by the same lock are journaled in the order they were applied. A full group is written after the lock
+     * is released. Without a journal, {@code change} runs without the lock.
+     *
+     * @param lock Monitor serializing every mutation that {@code change} could conflict with, see the class comment
+     * @param change Applies the mutation and, if it took effect, records it in the journal passed in
+     * @throws java.io.UncheckedIOException If the journal could not be written; the mutation is not applied if an
+     *         earlier write had already failed
+     */
+    <T> T journaled(Object lock, Function<Journal, T> change) {
+        Journal journal = this.journal;
+        if (journal == Journal.DISABLED) return change.apply(journal);
+        T result;
+        this.gate.readLock().lock();
+        try {
+            synchronized (lock) {
+                journal.check();
+                result = change.apply(journal);
+            }
+        } finally {
+            this.gate.readLock().unlock();
+        }
+        journal.sync();
+        return result;
+    }
+
+    boolean isFrozen(int year) {
+        Term term = this.terms.get(year);
+        return term != null && term.isFrozen();
+    }
+
+    /**
+     * @return The single writer that applies the changes queued through {@link AsyncStudent} and {@link AsyncInstructor}
+     */
+    synchronized CommandPipeline pipeline() {
+        if (this.pipeline == null) this.pipeline = new CommandPipeline(CommandPipeline.DEFAULT_CAPACITY);
+        return this.pipeline;
+    }
+
+    /**
+     * @return The student named {@code name}, registered on first use. Queries call {@link StudentRegistry#lookup(String)}
+     *         instead so that asking about an unknown name never creates a student.
+     */
+    Enrollee findStudent(String name) {
+        return this.students.intern(name);
+    }
+
+    Enrollee findStudent(int id) {
+        return this.students.get(id);
+    }
 
-    static Course findCourse(String name, int year) {
-        Course dummy = new Course(name, year);
-        for (Course c : courseInstructors.keySet()) {
-            if (c.equals(dummy)) return c;
+    /**
+     * Rebuild the model from the journal at {@code file} and record every further mutation to it.
+     * Any data held before this call is discarded.
+     *
+     * @param file Journal file, created if it does not exist
+     * @param batchSize Number of mutations written per fsync; 1 makes every mutation durable before its call returns
+     * @param maxDelayMillis Longest time a mutation may wait to be written, or 0 to write only full batches
+     * @return The number of journaled mutations that were applied again
+     */
+    public int openJournal(Path file, int batchSize, long maxDelayMillis) throws IOException {
+        return openJournal(file, null, batchSize, maxDelayMillis);
+    }
+
+    /**
+     * Like {@link #openJournal(Path, int, long)}, but first load the snapshot at {@code snapshotFile}, if it exists,
+     * and replay only the mutations journaled after that snapshot was taken. A snapshot taken before the journal was
+     * last {@linkplain #reset() reset}, or of another journal, is ignored and the whole journal is replayed.
+     *
+     * @param snapshotFile Snapshot written by {@link #checkpoint(Path)}, or null
+     */
+    public int openJournal(Path file, Path snapshotFile, int batchSize, long maxDelayMillis) throws IOException {
+        closeJournal();
+        reset();
+        Journal opened = Journal.open(file, batchSize, maxDelayMillis);
+        try {
+            long from = 0;
+            if (snapshotFile != null && Files.exists(snapshotFile)) {
+                from = Snapshot.load(this, snapshotFile, opened.generation());
+            }
+            int replayed = opened.replay(from, new Admin(this), new Student(this), new Instructor(this));
+            this.journal = opened;
+            return replayed;
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Capture the whole model and write it to {@code snapshotFile} in the background.
+     * Together with the journal, the snapshot lets {@link #openJournal(Path, Path, int, long)} skip replaying
+     * everything that happened before it.
+     *
+     * Journaled mutations wait while the model is captured, so the snapshot holds exactly the mutations journaled before
+     * the position it records. Only rosters and course settings are copied then; homeworks are captured by reference to
+     * their published versions and encoded, with everything else, while writing, which does not hold mutations up.
+     *
+     * @return Completes once the snapshot is on disk
+     */
+    public CompletableFuture<Void> checkpoint(Path snapshotFile) {
+        Snapshot snapshot;
+        this.gate.writeLock().lock();
+        try {
+            Journal journal = this.journal;
+            snapshot = Snapshot.capture(this, journal.generation(), journal.position());
+        } finally {
+            this.gate.writeLock().unlock();
         }
-        return null;
+        return snapshot.writeAsync(snapshotFile);
     }
 
-    static Enrollee findStudent(String name) {
-        for (Enrollee s : enrollees) {
-            if (s.getName().equals(name)) return s;
+    /**
+     * Write any pending mutations and stop journaling.
+     */
+    public void closeJournal() throws IOException {
+        Journal current = this.journal;
+        this.journal = Journal.DISABLED;
+        current.close();
+    }
+
+    public void reset() {
+        try {
+            this.journal.truncate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        Enrollee enrollee = new Enrollee(name);
-        enrollees.add(enrollee);
-        return enrollee;
+        this.students.clear();
+        this.terms.clear();
+        this.courseIds.clear();
+        this.instructorLoads.clear();
+        this.submissions.clear();
     }
 
-    public static void reset() {
-        enrollees.clear();
-        courseInstructors.clear();
+    /**
+     * Publish the call counts and latency percentiles of every API operation on this store as MBeans named
+     * {@code core.api:type=Operation,store="<store>",api=<class>,name=<method>}. They are removed again on {@link #close()}.
+     *
+     * @param store Name distinguishing this store from others in the same process
+     */
+    public void registerMBeans(String store) throws JMException {
+        this.metrics.register(store);
+    }
+
+    /**
+     * Apply the changes still queued for the asynchronous APIs, stop journaling, unregister any MBeans and
+     * release the files backing this store. Changes queued afterwards are rejected.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.pipeline != null) this.pipeline.close();
+        }
+        this.metrics.unregister();
+        closeJournal();
+        this.submissions.close();
     }
 }
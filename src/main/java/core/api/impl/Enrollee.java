@@ -1,30 +1,81 @@
 package core.api.impl;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Created by Vincent on 22/2/2017.
+ *
+ * Keeps the courses this student is registered for, partitioned by year, so a transcript only touches
+ * the student's own courses. The partition of a frozen year is an immutable array.
  */
 class Enrollee {
     private final String name;
-    private final Set<Course> courses;
+    private final int id;
+    private final ConcurrentNavigableMap<Integer, Collection<Course>> coursesByYear;
 
-    protected Enrollee(String name) {
+    protected Enrollee(String name, int id) {
         this.name = name;
-        this.courses = new HashSet<>();
+        this.id = id;
+        this.coursesByYear = new ConcurrentSkipListMap<>();
     }
 
     public String getName() {
         return this.name;
     }
 
+    /**
+     * @return Dense id assigned by the {@link StudentRegistry}
+     */
+    public int getId() {
+        return this.id;
+    }
+
     protected void addCourse(Course course) {
-        this.courses.add(course);
+        Collection<Course> courses = this.coursesByYear.computeIfAbsent(course.getYear(), year -> ConcurrentHashMap.newKeySet());
+        courses.add(course);
     }
 
     protected void dropCourse(Course course) {
-        this.courses.remove(course);
+        Collection<Course> courses = this.coursesByYear.get(course.getYear());
+        if (courses != null) courses.remove(course);
+    }
+
+    /**
+     * Replace the partition of {@code year} with an immutable array. Courses of a frozen year never change
+     * their rosters, so the partition is not modified again.
+     */
+    protected void freezeYear(int year) {
+        this.coursesByYear.computeIfPresent(year, (y, courses) ->
+                courses instanceof Set ? Arrays.asList(courses.toArray(new Course[0])) : courses);
+    }
+
+    /**
+     * @return The courses of {@code year}, in no particular order
+     */
+    protected Collection<Course> getCourses(int year) {
+        Collection<Course> courses = this.coursesByYear.get(year);
+        return courses == null ? Collections.emptySet() : courses;
+    }
+
+    /**
+     * @return The courses of every year, earliest year first
+     */
+    protected List<Course> getCourses() {
+        List<Course> all = new ArrayList<>();
+        for (Collection<Course> courses : this.coursesByYear.values()) all.addAll(courses);
+        return all;
+    }
+
+    public int hashCode() {
+        return this.name.hashCode();
     }
 
     public boolean equals(Object other) {
@@ -0,0 +1,59 @@
+package core.api.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters of the {@link BloomFilter}s guarding one kind of membership query.
+ */
+class FilterStats implements FilterStatsMBean {
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Record a query the filter answered on its own.
+     */
+    void negative() {
+        this.probes.increment();
+        this.negatives.increment();
+    }
+
+    /**
+     * Record a query the filter let through to the full lookup.
+     *
+     * @param found Answer of the full lookup; false makes this a false positive
+     */
+    void passed(boolean found) {
+        this.probes.increment();
+        if (!found) this.falsePositives.increment();
+    }
+
+    @Override
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    @Override
+    public long getNegatives() {
+        return this.negatives.sum();
+    }
+
+    @Override
+    public long getFalsePositives() {
+        return this.falsePositives.sum();
+    }
+
+    @Override
+    public double getFalsePositiveRate() {
+        long falsePositives = this.falsePositives.sum();
+        long absent = this.negatives.sum() + falsePositives;
+        return absent == 0 ? 0 : (double) falsePositives / absent;
+    }
+
+    @Override
+    public void reset() {
+        this.probes.reset();
+        this.negatives.reset();
+        this.falsePositives.reset();
+    }
+}
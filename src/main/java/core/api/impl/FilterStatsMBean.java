@@ -0,0 +1,21 @@
+package core.api.impl;
+
+/**
+ * JMX view of how well one kind of {@link BloomFilter} screens membership queries.
+ */
+public interface FilterStatsMBean {
+
+    /** Queries that consulted a filter */
+    long getProbes();
+
+    /** Queries answered "no" by the filter alone */
+    long getNegatives();
+
+    /** Queries the filter let through that the full lookup then answered "no" */
+    long getFalsePositives();
+
+    /** False positives as a share of all queries whose answer was "no", between 0 and 1 */
+    double getFalsePositiveRate();
+
+    void reset();
+}
@@ -0,0 +1,40 @@
+package core.api.impl;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lets mutations run concurrently until {@link #freeze()} is called, after which every mutation is refused.
+ *
+ * Mutations hold a shared read lock of a {@link StampedLock} between {@link #enter()} and {@link #exit()}.
+ * Freezing takes the write lock, which waits for mutations in flight to finish, and never releases it,
+ * so {@link #enter()} fails from then on without blocking.
+ */
+final class FreezeGuard {
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @return Whether the caller may mutate; if so it must call {@link #exit()} afterwards
+     */
+    boolean enter() {
+        return this.lock.tryReadLock() != 0L;
+    }
+
+    void exit() {
+        this.lock.tryUnlockRead();
+    }
+
+    /**
+     * Wait for mutations in flight and refuse all later ones.
+     *
+     * @return False if already frozen
+     */
+    synchronized boolean freeze() {
+        if (this.lock.isWriteLocked()) return false;
+        this.lock.writeLock();
+        return true;
+    }
+
+    boolean isFrozen() {
+        return this.lock.isWriteLocked();
+    }
+}
@@ -0,0 +1,77 @@
+package core.api.impl;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import core.api.GradeStatistics;
+
+/**
+ * Running count, sum and histogram of a changing set of grades. Grades from {@link GradeStatistics#MIN_GRADE} to
+ * {@link GradeStatistics#MAX_GRADE} are counted in a fixed array; anything else is kept in a small sorted map.
+ * Adding, replacing and removing a grade is O(1) for in-range grades.
+ *
+ * Writers serialize on the distribution and publish an immutable {@link GradeStatistics} after every change, which costs
+ * one array copy however many grades there are; {@link #snapshot()} returns the latest one without locking.
+ */
+class GradeDistribution {
+    private static final int RANGE = GradeStatistics.MAX_GRADE - GradeStatistics.MIN_GRADE + 1;
+
+    private final int[] counts = new int[RANGE];
+    private final TreeMap<Integer, Integer> outliers = new TreeMap<>();
+    private int outlierCount;
+    private int count;
+    private long sum;
+    private volatile GradeStatistics published = publish();
+
+    /**
+     * Replace every grade {@code previous[i]} with {@code grades[i]}, publishing the whole batch at once.
+     *
+     * @param previous The grades being replaced, with {@link Homework#UNGRADED} for students who had none
+     */
+    protected synchronized void replace(int[] previous, int[] grades) {
+        for (int i = 0; i < grades.length; i++) {
+            if (previous[i] != Homework.UNGRADED) remove(previous[i]);
+            add(grades[i]);
+        }
+        this.published = publish();
+    }
+
+    private void add(int grade) {
+        if (grade >= GradeStatistics.MIN_GRADE && grade <= GradeStatistics.MAX_GRADE) {
+            this.counts[grade - GradeStatistics.MIN_GRADE]++;
+        } else {
+            this.outliers.merge(grade, 1, Integer::sum);
+            this.outlierCount++;
+        }
+        this.count++;
+        this.sum += grade;
+    }
+
+    private void remove(int grade) {
+        if (grade >= GradeStatistics.MIN_GRADE && grade <= GradeStatistics.MAX_GRADE) {
+            this.counts[grade - GradeStatistics.MIN_GRADE]--;
+        } else {
+            this.outliers.computeIfPresent(grade, (g, n) -> n == 1 ? null : n - 1);
+            this.outlierCount--;
+        }
+        this.count--;
+        this.sum -= grade;
+    }
+
+    /**
+     * @return Statistics of the grades as of the last completed change
+     */
+    protected GradeStatistics snapshot() {
+        return this.published;
+    }
+
+    // Caller holds the distribution's monitor, or is the constructor
+    private GradeStatistics publish() {
+        int[] outliers = new int[this.outlierCount];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : this.outliers.entrySet()) {
+            for (int n = 0; n < entry.getValue(); n++) outliers[i++] = entry.getKey();
+        }
+        return new GradeStatistics(this.counts.clone(), outliers, this.count, this.sum);
+    }
+}
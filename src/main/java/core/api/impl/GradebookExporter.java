@@ -0,0 +1,149 @@
+package core.api.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import core.api.GradebookFormat;
+import core.api.IGradebookExporter;
+
+/**
+ * Walks each course's homeworks and student ids directly, reading grades and submission flags from the homeworks'
+ * published versions. Besides the output buffer, an export holds only the student ids of the course being written.
+ *
+ * Output buffers are direct, so they are pooled rather than left to the garbage collector: each export borrows one and
+ * returns it when done. The pool holds as many buffers as exports have ever run at the same time.
+ */
+public class GradebookExporter implements IGradebookExporter {
+    private static final int MAGIC = 0x48574742; // "HWGB"
+    private static final int VERSION = 1;
+
+    private final DataManager data;
+    private final int bufferSize;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    public GradebookExporter(DataManager data) {
+        this(data, ChannelOutput.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize Size in bytes of the buffer each export writes through
+     */
+    public GradebookExporter(DataManager data, int bufferSize) {
+        this.data = data;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public long exportClass(String className, int year, GradebookFormat format, WritableByteChannel out) throws IOException {
+        Course course = this.data.findCourse(className, year);
+        return export(course == null ? Collections.emptyList() : Collections.singletonList(course), format, out);
+    }
+
+    @Override
+    public long exportYear(int year, GradebookFormat format, WritableByteChannel out) throws IOException {
+        Term term = this.data.terms.get(year);
+        List<Course> courses = term == null ? new ArrayList<>() : new ArrayList<>(term.getCourses());
+        courses.sort(Comparator.comparing(Course::getName));
+        return export(courses, format, out);
+    }
+
+    private long export(List<Course> courses, GradebookFormat format, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = this.buffers.poll();
+        if (buffer == null) buffer = ChannelOutput.allocate(this.bufferSize);
+        try {
+            ChannelOutput output = new ChannelOutput(out, buffer);
+            long rows = 0;
+            if (format == GradebookFormat.CSV) {
+                output.writeAscii("class,year,student,homework,grade,submitted\r\n");
+                for (Course course : courses) rows += writeCsv(course, output);
+            } else {
+                output.writeInt(MAGIC).writeInt(VERSION);
+                for (Course course : courses) rows += writeColumnar(course, output);
+                output.writeByte(0);
+            }
+            output.flush();
+            return rows;
+        } finally {
+            this.buffers.offer(buffer);
+        }
+    }
+
+    private long writeCsv(Course course, ChannelOutput out) throws IOException {
+        Enrollee[] students = students(course);
+        int homeworks = course.getHomeworkCount();
+        for (Enrollee student : students) {
+            for (int ordinal = 0; ordinal < homeworks; ordinal++) {
+                Homework homework = course.getHomework(ordinal);
+                writeCsvField(out, course.getName());
+                out.writeByte(',').writeDecimal(course.getYear()).writeByte(',');
+                writeCsvField(out, student.getName());
+                out.writeByte(',');
+                writeCsvField(out, homework.getName());
+                out.writeByte(',');
+                int grade = homework.getGrade(student);
+                if (grade != Homework.UNGRADED) out.writeDecimal(grade);
+                out.writeAscii(homework.hasSubmitted(student) ? ",true\r\n" : ",false\r\n");
+            }
+        }
+        return (long) students.length * homeworks;
+    }
+
+    private static void writeCsvField(ChannelOutput out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                out.writeByte('"').writeUtf8(value.replace("\"", "\"\"")).writeByte('"');
+                return;
+            }
+        }
+        out.writeUtf8(value);
+    }
+
+    private long writeColumnar(Course course, ChannelOutput out) throws IOException {
+        Enrollee[] students = students(course);
+        int homeworks = course.getHomeworkCount();
+        out.writeByte(1).writeString(course.getName()).writeInt(course.getYear());
+        out.writeInt(students.length);
+        for (Enrollee student : students) out.writeString(student.getName());
+        out.writeInt(homeworks);
+        for (int ordinal = 0; ordinal < homeworks; ordinal++) out.writeString(course.getHomework(ordinal).getName());
+        for (int ordinal = 0; ordinal < homeworks; ordinal++) {
+            Homework homework = course.getHomework(ordinal);
+            for (Enrollee student : students) out.writeInt(homework.getGrade(student));
+            int flags = 0;
+            for (int i = 0; i < students.length; i++) {
+                if (homework.hasSubmitted(students[i])) flags |= 1 << (i & 7);
+                if ((i & 7) == 7) {
+                    out.writeByte(flags);
+                    flags = 0;
+                }
+            }
+            if ((students.length & 7) != 0) out.writeByte(flags);
+        }
+        return (long) students.length * homeworks;
+    }
+
+    /**
+     * @return Everyone enrolled in {@code course} or holding a submission or grade in one of its homeworks, by id
+     */
+    private Enrollee[] students(Course course) {
+        IntIntMap ids = new IntIntMap(0); // used as a set
+        for (int id : course.getEnrolleeIds()) ids.put(id, 1);
+        for (int ordinal = 0; ordinal < course.getHomeworkCount(); ordinal++) {
+            Homework homework = course.getHomework(ordinal);
+            homework.forEachSubmission((id, offset) -> ids.put(id, 1));
+            homework.forEachGrade((id, grade) -> ids.put(id, 1));
+        }
+        int[] sorted = ids.sortedKeys();
+        Enrollee[] students = new Enrollee[sorted.length];
+        for (int i = 0; i < sorted.length; i++) students[i] = this.data.students.get(sorted[i]);
+        return students;
+    }
+}
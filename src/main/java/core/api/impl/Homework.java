@@ -1,40 +1,339 @@
 package core.api.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+
+import core.api.GradeStatistics;
 
 /**
  * Created by Vincent on 22/2/2017.
+ *
+ * Submissions and grades live in persistent tries while the course is open, keyed by the students' ordinals in the
+ * course's {@link OrdinalIndex}. Those ordinals are dense, so the leaves of the tries fill up and an entry costs about
+ * as much as in a hash map. A published trie is never written again; writers, serialized on the homework, derive the
+ * next version from the current one, sharing all but one path with it, and publish it through a volatile field. A write
+ * therefore costs the same however many students the homework has, and readers never lock and always see a whole
+ * write, or a whole batch of grades.
+ * {@link #freeze()} replaces the tries with sorted, exactly sized arrays that are searched with a binary search and
+ * never change again.
+ *
+ * A {@link BloomFilter} of the names of students who have submitted lets "has not submitted" be answered for most
+ * students without looking them up. Once it is saturated it is rebuilt from the submissions, with room for twice as
+ * many submitters.
  */
 class Homework {
+    private static final int MIN_FILTER_KEYS = 16;
+
+    /** Grade slot value for students who have not been graded; never accepted as a grade */
+    static final int UNGRADED = Integer.MIN_VALUE;
+
     private final String name;
-    private final Map<Enrollee, String> studentSubmissions;
-    private final Map<Enrollee, Integer> studentGrades;
+    private final int ordinal;
+    private final SubmissionStore submissions;
+    private final FreezeGuard guard;
+    private final OrdinalIndex students;
+    private final GradeDistribution grades;
+    private final GradeDistribution courseGrades;
+
+    // While open: current version of student ordinal -> offset in submissions / grade. Null once frozen.
+    private volatile IntLongTrie studentSubmissions;
+    private volatile IntLongTrie studentGrades;
+    private volatile BloomFilter submitters = new BloomFilter(MIN_FILTER_KEYS); // name hashes, kept when frozen
+
+    // Once frozen: parallel arrays sorted by student id, written before the maps above are cleared
+    private int[] submittedIds;
+    private long[] submissionOffsets;
+    private int[] gradedIds;
+    private int[] gradeValues;
 
-    protected Homework(String name) {
+    /**
+     * @param guard Freeze guard of the course, checked by every mutation
+     * @param students Ordinals of the course's students, shared by all its homeworks
+     * @param courseGrades Distribution of the grades of every homework in the course, updated along with this homework's
+     */
+    protected Homework(String name, int ordinal, SubmissionStore submissions, FreezeGuard guard, OrdinalIndex students,
+            GradeDistribution courseGrades) {
         this.name = name;
-        this.studentSubmissions = new HashMap<>();
-        this.studentGrades = new HashMap<>();
+        this.ordinal = ordinal;
+        this.submissions = submissions;
+        this.guard = guard;
+        this.students = students;
+        this.studentSubmissions = new IntLongTrie(SubmissionStore.NONE);
+        this.studentGrades = new IntLongTrie(UNGRADED);
+        this.grades = new GradeDistribution();
+        this.courseGrades = courseGrades;
     }
 
     public String getName() {
         return this.name;
     }
 
-    protected void submit(Enrollee enrollee, String solution) {
-        this.studentSubmissions.put(enrollee, solution);
+    /**
+     * @return Position of this homework within its course, in the order homeworks were added
+     */
+    public int getOrdinal() {
+        return this.ordinal;
+    }
+
+    /**
+     * Record {@code solution} as the answer of {@code enrollee}. The text is appended to the
+     * {@link SubmissionStore} and only its offset is kept here.
+     *
+     * @return False if the course is frozen
+     */
+    protected boolean submit(Enrollee enrollee, String solution) {
+        if (!this.guard.enter()) return false;
+        try {
+            long offset = solution == null ? SubmissionStore.NONE : this.submissions.append(solution);
+            int ordinal = this.students.intern(enrollee);
+            synchronized (this) {
+                IntLongTrie current = this.studentSubmissions;
+                IntLongTrie next = current.with(ordinal, offset);
+                if (current.get(ordinal) == SubmissionStore.NONE && offset != SubmissionStore.NONE) {
+                    BloomFilter filter = this.submitters;
+                    filter.add(enrollee.getName().hashCode());
+                    if (filter.isSaturated()) this.submitters = filterOf(next);
+                }
+                this.studentSubmissions = next;
+            }
+            return true;
+        } finally {
+            this.guard.exit();
+        }
+    }
+
+    /**
+     * Set the grade of {@code enrollee}, replacing any earlier grade in this homework's and the course's statistics.
+     *
+     * @return False if the course is frozen
+     */
+    protected boolean gradeStudent(Enrollee enrollee, int grade) {
+        return gradeStudents(new Enrollee[] {enrollee}, new int[] {grade});
+    }
+
+    /**
+     * Set the grade of every {@code enrollees[i]} to {@code grades[i]} in a single new version, so readers see either
+     * none or all of the batch.
+     *
+     * @return False if the course is frozen
+     * @throws IllegalArgumentException If a grade is {@link #UNGRADED}, which would read back as no grade while still
+     *         being counted in the grade statistics
+     */
+    protected boolean gradeStudents(Enrollee[] enrollees, int[] grades) {
+        for (int grade : grades) {
+            if (grade == UNGRADED) throw new IllegalArgumentException("Reserved grade value: " + grade);
+        }
+        if (!this.guard.enter()) return false;
+        try {
+            int[] ordinals = new int[enrollees.length];
+            for (int i = 0; i < enrollees.length; i++) ordinals[i] = this.students.intern(enrollees[i]);
+            synchronized (this) {
+                IntLongTrie next = this.studentGrades;
+                int[] previous = new int[grades.length];
+                for (int i = 0; i < grades.length; i++) {
+                    previous[i] = (int) next.get(ordinals[i]);
+                    next = next.with(ordinals[i], grades[i]);
+                }
+                this.studentGrades = next;
+                this.grades.replace(previous, grades);
+                this.courseGrades.replace(previous, grades);
+            }
+            return true;
+        } finally {
+            this.guard.exit();
+        }
+    }
+
+    protected GradeStatistics getGradeStatistics() {
+        return this.grades.snapshot();
+    }
+
+    /**
+     * @return False if no student named {@code studentName} has submitted an answer; true if one might have
+     */
+    protected boolean mightHaveSubmitted(String studentName) {
+        return this.submitters.mightContain(studentName.hashCode());
     }
 
-    protected void gradeStudent(Enrollee enrollee, int grade) {
-        this.studentGrades.put(enrollee, grade);
+    private BloomFilter filterOf(IntLongTrie submitted) {
+        BloomFilter filter = new BloomFilter(Math.max(MIN_FILTER_KEYS, 2 * submitted.size()));
+        submitted.forEach((ordinal, offset) -> filter.add(this.students.student(ordinal).getName().hashCode()));
+        return filter;
     }
 
+    protected boolean hasSubmitted(Enrollee enrollee) {
+        return submissionOffset(enrollee) != SubmissionStore.NONE;
+    }
+
+    /**
+     * @return The answer submitted by {@code enrollee}, read back from the {@link SubmissionStore}, or null
+     */
     protected String getSubmission(Enrollee enrollee) {
-        return this.studentSubmissions.get(enrollee);
+        long offset = submissionOffset(enrollee);
+        if (offset == SubmissionStore.NONE) return null;
+        return this.submissions.read(offset);
+    }
+
+    /**
+     * Visit the submission offset of every student who has submitted, in no particular order.
+     */
+    protected void forEachSubmission(IntLongMap.EntryVisitor visitor) {
+        version().forEachSubmission(visitor);
+    }
+
+    /**
+     * Visit the grade of every graded student, in no particular order.
+     */
+    protected void forEachGrade(IntIntMap.EntryVisitor visitor) {
+        version().forEachGrade(visitor);
+    }
+
+    /**
+     * @return The submissions and grades as they are now. Nothing is copied: the version refers to the published tries,
+     *         or to the arrays once frozen, and neither is ever changed.
+     */
+    protected Version version() {
+        IntLongTrie openSubmissions = this.studentSubmissions;
+        IntLongTrie openGrades = this.studentGrades;
+        // Frozen, perhaps in between the two reads: the arrays were written before either trie was cleared
+        if (openSubmissions == null || openGrades == null) {
+            return new Version(this.submittedIds, this.submissionOffsets, this.gradedIds, this.gradeValues);
+        }
+        return new Version(this.students, openSubmissions, openGrades);
+    }
+
+    private long submissionOffset(Enrollee enrollee) {
+        IntLongTrie open = this.studentSubmissions;
+        if (open == null) {
+            int i = Arrays.binarySearch(this.submittedIds, enrollee.getId());
+            return i < 0 ? SubmissionStore.NONE : this.submissionOffsets[i];
+        }
+        int ordinal = this.students.lookup(enrollee);
+        return ordinal == OrdinalIndex.NONE ? SubmissionStore.NONE : open.get(ordinal);
+    }
+
+    /**
+     * @return The grade of {@code enrollee}, or {@link #UNGRADED}
+     */
+    protected int getGrade(Enrollee enrollee) {
+        IntLongTrie open = this.studentGrades;
+        if (open == null) {
+            int i = Arrays.binarySearch(this.gradedIds, enrollee.getId());
+            return i < 0 ? UNGRADED : this.gradeValues[i];
+        }
+        int ordinal = this.students.lookup(enrollee);
+        return ordinal == OrdinalIndex.NONE ? UNGRADED : (int) open.get(ordinal);
+    }
+
+    /**
+     * Compact submissions and grades into sorted arrays. The course's guard must already be frozen.
+     */
+    protected void freeze() {
+        IntLongTrie openSubmissions = this.studentSubmissions;
+        IntLongTrie openGrades = this.studentGrades;
+        if (openSubmissions == null) return;
+        int[] ordinals = byStudentId(openSubmissions);
+        int[] ids = new int[ordinals.length];
+        long[] offsets = new long[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            ids[i] = this.students.studentId(ordinals[i]);
+            offsets[i] = openSubmissions.get(ordinals[i]);
+        }
+        this.submittedIds = ids;
+        this.submissionOffsets = offsets;
+        ordinals = byStudentId(openGrades);
+        int[] gradedIds = new int[ordinals.length];
+        int[] values = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            gradedIds[i] = this.students.studentId(ordinals[i]);
+            values[i] = (int) openGrades.get(ordinals[i]);
+        }
+        this.gradedIds = gradedIds;
+        this.gradeValues = values;
+        // The volatile writes publish the arrays to readers that find the maps gone
+        this.studentSubmissions = null;
+        this.studentGrades = null;
+    }
+
+    /**
+     * @return The ordinals present in {@code trie}, sorted by the ids of their students
+     */
+    private int[] byStudentId(IntLongTrie trie) {
+        // Student id in the high half, ordinal in the low half, so sorting the words sorts by id
+        long[] pairs = new long[trie.size()];
+        int[] count = {0};
+        trie.forEach((ordinal, value) -> pairs[count[0]++] = ((long) this.students.studentId(ordinal) << 32) | ordinal);
+        Arrays.sort(pairs);
+        int[] ordinals = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) ordinals[i] = (int) pairs[i];
+        return ordinals;
+    }
+
+    /**
+     * Submissions and grades of a homework at one moment, safe to read from any thread for as long as it is kept.
+     */
+    static final class Version {
+        private final OrdinalIndex students;
+        private final IntLongTrie submissions; // null if frozen
+        private final IntLongTrie grades;      // null if frozen
+        private final int[] submittedIds;
+        private final long[] submissionOffsets;
+        private final int[] gradedIds;
+        private final int[] gradeValues;
+
+        private Version(OrdinalIndex students, IntLongTrie submissions, IntLongTrie grades) {
+            this.students = students;
+            this.submissions = submissions;
+            this.grades = grades;
+            this.submittedIds = null;
+            this.submissionOffsets = null;
+            this.gradedIds = null;
+            this.gradeValues = null;
+        }
+
+        private Version(int[] submittedIds, long[] submissionOffsets, int[] gradedIds, int[] gradeValues) {
+            this.students = null;
+            this.submissions = null;
+            this.grades = null;
+            this.submittedIds = submittedIds;
+            this.submissionOffsets = submissionOffsets;
+            this.gradedIds = gradedIds;
+            this.gradeValues = gradeValues;
+        }
+
+        int submissionCount() {
+            return this.submissions == null ? this.submittedIds.length : this.submissions.size();
+        }
+
+        int gradeCount() {
+            return this.grades == null ? this.gradedIds.length : this.grades.size();
+        }
+
+        /**
+         * Visit the submission offset of every student who had submitted, in no particular order.
+         */
+        void forEachSubmission(IntLongMap.EntryVisitor visitor) {
+            if (this.submissions == null) {
+                for (int i = 0; i < this.submittedIds.length; i++) visitor.visit(this.submittedIds[i], this.submissionOffsets[i]);
+                return;
+            }
+            // Ordinals in a published trie were assigned before it was published, so their ids are known
+            this.submissions.forEach((ordinal, offset) -> visitor.visit(this.students.studentId(ordinal), offset));
+        }
+
+        /**
+         * Visit the grade of every student who had been graded, in no particular order.
+         */
+        void forEachGrade(IntIntMap.EntryVisitor visitor) {
+            if (this.grades == null) {
+                for (int i = 0; i < this.gradedIds.length; i++) visitor.visit(this.gradedIds[i], this.gradeValues[i]);
+                return;
+            }
+            this.grades.forEach((ordinal, grade) -> visitor.visit(this.students.studentId(ordinal), (int) grade));
+        }
     }
 
-    protected Integer getGrade(Enrollee enrollee) {
-        return this.studentGrades.get(enrollee);
+    public int hashCode() {
+        return this.name.hashCode();
     }
 
     public boolean equals(Object other) {
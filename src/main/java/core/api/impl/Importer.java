@@ -0,0 +1,327 @@
+package core.api.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.api.IImporter;
+import core.api.ImportRejection;
+import core.api.ImportReport;
+import core.api.RegistrationResult;
+import core.api.RejectionReason;
+
+/**
+ * Splits a file into line-aligned chunks of about {@code chunkSize} bytes, which a pool of parser threads read with
+ * positional reads and split into fields. The calling thread applies the parsed chunks one at a time, in file order,
+ * while later chunks are still being parsed; at most two chunks per parser are held at once, so memory does not grow
+ * with the size of the file. Catalog rows go through {@link Admin}, one row at a time, roster rows through the
+ * {@link Registrar} one chunk at a time so seats are reserved per course and chunk instead of per row. Both are timed
+ * under the operations of those APIs.
+ */
+public class Importer implements IImporter {
+    static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private static final String[] CATALOG_COLUMNS = {"class", "year", "instructor", "capacity"};
+    private static final String[] ROSTER_COLUMNS = {"student", "class", "year"};
+
+    private final Admin admin;
+    private final Registrar registrar;
+    private final int chunkSize;
+    private final int parsers;
+
+    public Importer(DataManager data) {
+        this(data, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param chunkSize Approximate number of bytes parsed as one unit
+     * @param parsers Number of parser threads
+     */
+    public Importer(DataManager data, int chunkSize, int parsers) {
+        this.admin = new Admin(data);
+        this.registrar = new Registrar(data);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parsers = Math.max(1, parsers);
+    }
+
+    @Override
+    public ImportReport importCatalog(Path file) throws IOException {
+        return load(file, CATALOG_COLUMNS, this::applyCatalog);
+    }
+
+    @Override
+    public ImportReport importRoster(Path file) throws IOException {
+        return load(file, ROSTER_COLUMNS, this::applyRoster);
+    }
+
+    private void applyCatalog(Chunk chunk, Progress progress) {
+        for (int r = 0; r < chunk.size(); r++) {
+            String[] fields = chunk.rows.get(r);
+            long line = progress.line(chunk, r);
+            if (fields == null) {
+                progress.reject(line, RejectionReason.MALFORMED);
+                continue;
+            }
+            String className = fields[0];
+            String instructorName = fields[2];
+            int year;
+            int capacity;
+            try {
+                year = Integer.parseInt(fields[1].trim());
+                capacity = Integer.parseInt(fields[3].trim());
+            } catch (NumberFormatException e) {
+                progress.reject(line, RejectionReason.MALFORMED);
+                continue;
+            }
+            RejectionReason rejection = this.admin.tryCreateClass(className, year, instructorName, capacity);
+            if (rejection == null) {
+                progress.applied++;
+            } else {
+                progress.reject(line, rejection);
+            }
+        }
+    }
+
+    private void applyRoster(Chunk chunk, Progress progress) {
+        int size = chunk.size();
+        String[] studentNames = new String[size];
+        String[] classNames = new String[size];
+        int[] years = new int[size];
+        int[] rows = new int[size]; // row within the chunk of each well-formed entry
+        int count = 0;
+        for (int r = 0; r < size; r++) {
+            String[] fields = chunk.rows.get(r);
+            try {
+                if (fields == null) throw new NumberFormatException();
+                years[count] = Integer.parseInt(fields[2].trim());
+            } catch (NumberFormatException e) {
+                progress.reject(progress.line(chunk, r), RejectionReason.MALFORMED);
+                continue;
+            }
+            studentNames[count] = fields[0];
+            classNames[count] = fields[1];
+            rows[count++] = r;
+        }
+        RegistrationResult[] results = this.registrar.registerForClasses(
+                Arrays.copyOf(studentNames, count), Arrays.copyOf(classNames, count), Arrays.copyOf(years, count));
+        // Rejections are sorted once the whole file is done, so they can be added out of line order here
+        for (int i = 0; i < count; i++) {
+            long line = progress.line(chunk, rows[i]);
+            switch (results[i]) {
+                case REGISTERED:
+                case WAITLISTED:
+                    progress.applied++;
+                    break;
+                case ALREADY_REGISTERED:
+                    progress.reject(line, RejectionReason.ALREADY_REGISTERED);
+                    break;
+                case NO_SUCH_CLASS:
+                    progress.reject(line, RejectionReason.NO_SUCH_CLASS);
+                    break;
+                case CLASS_CLOSED:
+                    progress.reject(line, RejectionReason.YEAR_FROZEN);
+                    break;
+            }
+        }
+    }
+
+    private ImportReport load(Path file, String[] columns, ChunkApplier applier) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(this.parsers, r -> {
+            Thread thread = new Thread(r, "import-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Progress progress = new Progress();
+            Deque<Future<Chunk>> window = new ArrayDeque<>();
+            long offset = 0;
+            while (offset < size || !window.isEmpty()) {
+                while (offset < size && window.size() < 2 * this.parsers) {
+                    long start = offset;
+                    long end = lineStart(channel, Math.min(size, start + this.chunkSize), size);
+                    window.add(pool.submit(() -> parse(channel, start, end, start == 0, columns)));
+                    offset = end;
+                }
+                Chunk chunk = await(window.poll());
+                progress.rows += chunk.size();
+                applier.apply(chunk, progress);
+                progress.nextLine += chunk.lines;
+            }
+            progress.rejections.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            return new ImportReport(progress.rows, progress.applied, progress.rejections);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * @return Offset of the first line that starts at or after {@code offset}, or {@code size} if there is none
+     */
+    private static long lineStart(FileChannel channel, long offset, long size) throws IOException {
+        if (offset == 0 || offset >= size) return offset;
+        ByteBuffer block = ByteBuffer.allocate(8 << 10);
+        long position = offset - 1; // a line starts right after a line feed
+        while (position < size) {
+            block.clear();
+            int read = channel.read(block, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end, boolean first, String[] columns) {
+        byte[] bytes = new byte[(int) (end - start)];
+        ByteBuffer target = ByteBuffer.wrap(bytes);
+        try {
+            while (target.hasRemaining()) {
+                if (channel.read(target, start + target.position()) < 0) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Chunk chunk = new Chunk();
+        int length = target.position();
+        int position = 0;
+        if (first && length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            position = 3; // UTF-8 byte order mark
+        }
+        while (position < length) {
+            int lineEnd = position;
+            while (lineEnd < length && bytes[lineEnd] != '\n') lineEnd++;
+            int contentEnd = lineEnd > position && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > position) {
+                String[] fields = split(bytes, position, contentEnd);
+                if (!first || chunk.lines > 0 || !isHeader(fields, columns)) {
+                    chunk.add(chunk.lines, fields == null || fields.length != columns.length ? null : fields);
+                }
+            }
+            chunk.lines++;
+            position = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * @return The fields of {@code bytes[from, to)}, or null if a quoted field is not closed
+     */
+    private static String[] split(byte[] bytes, int from, int to) {
+        List<String> fields = new ArrayList<>();
+        int position = from;
+        while (true) {
+            if (position < to && bytes[position] == '"') {
+                int close = position + 1;
+                boolean escaped = false;
+                while (true) {
+                    if (close >= to) return null;
+                    if (bytes[close] == '"') {
+                        if (close + 1 < to && bytes[close + 1] == '"') {
+                            escaped = true;
+                            close += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    close++;
+                }
+                String field = new String(bytes, position + 1, close - position - 1, StandardCharsets.UTF_8);
+                fields.add(escaped ? field.replace("\"\"", "\"") : field);
+                position = close + 1;
+                if (position < to && bytes[position] != ',') return null;
+            } else {
+                int comma = position;
+                while (comma < to && bytes[comma] != ',') comma++;
+                fields.add(new String(bytes, position, comma - position, StandardCharsets.UTF_8));
+                position = comma;
+            }
+            if (position >= to) break;
+            position++; // skip the comma
+            if (position == to) {
+                fields.add("");
+                break;
+            }
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static boolean isHeader(String[] fields, String[] columns) {
+        if (fields == null || fields.length != columns.length) return false;
+        for (int i = 0; i < columns.length; i++) {
+            if (!fields[i].trim().equalsIgnoreCase(columns[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rows of one chunk, split into fields. A null row is malformed.
+     */
+    private static final class Chunk {
+        final List<String[]> rows = new ArrayList<>();
+        private int[] offsets = new int[64]; // line of each row, counted from the chunk's first line
+        int lines;                           // lines in the chunk, including blank ones and the header
+
+        void add(int line, String[] fields) {
+            if (this.rows.size() == this.offsets.length) this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+            this.offsets[this.rows.size()] = line;
+            this.rows.add(fields);
+        }
+
+        int size() {
+            return this.rows.size();
+        }
+    }
+
+    /**
+     * Running totals of one load, kept by the applying thread.
+     */
+    private static final class Progress {
+        final List<ImportRejection> rejections = new ArrayList<>();
+        long nextLine = 1; // file line number of the current chunk's first line
+        long rows;
+        long applied;
+
+        long line(Chunk chunk, int row) {
+            return this.nextLine + chunk.offsets[row];
+        }
+
+        void reject(long line, RejectionReason reason) {
+            this.rejections.add(new ImportRejection(line, reason));
+        }
+    }
+
+    private interface ChunkApplier {
+        void apply(Chunk chunk, Progress progress);
+    }
+}
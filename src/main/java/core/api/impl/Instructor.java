@@ -1,5 +1,9 @@
 package core.api.impl;
 
+import java.util.Map;
+import java.util.Objects;
+
+import core.api.GradeStatistics;
 import core.api.IInstructor;
 
 /**
@@ -7,41 +11,172 @@ import core.api.IInstructor;
  */
 public class Instructor implements IInstructor {
 
+    private final DataManager data;
+
+    public Instructor(DataManager data) {
+        this.data = data;
+    }
+
     @Override
     public void addHomework(String instructorName, String className, int year, String homeworkName) {
-        Course course = DataManager.findCourse(className, year);
-        if (course != null) {
-            course.addHomework(new Homework(homeworkName));
-        }
+        this.data.metrics.time(Operation.INSTRUCTOR_ADD_HOMEWORK, () -> add(instructorName, className, year, homeworkName));
+    }
+
+    boolean add(String instructorName, String className, int year, String homeworkName) {
+        Course course = this.data.findCourse(className, year);
+        return course != null && this.data.journaled(course, journal -> {
+            if (course.addHomework(homeworkName) == null) return false;
+            journal.addHomework(instructorName, className, year, homeworkName);
+            return true;
+        });
     }
 
     @Override
     public void assignGrade(String instructorName, String className, int year, String homeworkName, String studentName, int grade) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (enrollee != null && course != null) {
-            Homework homework = course.getHomework(homeworkName);
-            if (homework != null) {
-                homework.gradeStudent(enrollee, grade);
-            }
+        this.data.metrics.time(Operation.INSTRUCTOR_ASSIGN_GRADE, () -> grade(instructorName, className, year, homeworkName, studentName, grade));
+    }
+
+    @Override
+    public void assignGrade(String instructorName, int classId, int homeworkId, int studentId, int grade) {
+        this.data.metrics.time(Operation.INSTRUCTOR_ASSIGN_GRADE, () -> {
+            Course course = this.data.findCourse(classId);
+            Homework homework = course == null ? null : course.getHomework(homeworkId);
+            return grade(instructorName, course, homework, this.data.findStudent(studentId), grade);
+        });
+    }
+
+    boolean grade(String instructorName, String className, int year, String homeworkName, String studentName, int grade) {
+        Course course = this.data.findCourse(className, year);
+        Homework homework = course == null ? null : course.getHomework(homeworkName);
+        return grade(instructorName, course, homework, this.data.students.lookup(studentName), grade);
+    }
+
+    private boolean grade(String instructorName, Course course, Homework homework, Enrollee enrollee, int grade) {
+        return course != null && this.data.journaled(course, journal -> {
+            if (!gradable(instructorName, course, homework, enrollee, grade) || !homework.gradeStudent(enrollee, grade)) return false;
+            journal.assignGrade(instructorName, course.getName(), course.getYear(), homework.getName(), enrollee.getName(), grade);
+            return true;
+        });
+    }
+
+    /**
+     * The rules every grade goes through, whether assigned alone, in a batch, asynchronously or on replay: the
+     * instructor teaches the course, the student has submitted the homework and the grade is a percentage.
+     */
+    private static boolean gradable(String instructorName, Course course, Homework homework, Enrollee enrollee, int grade) {
+        return course != null && homework != null && enrollee != null
+                && Objects.equals(instructorName, course.getInstructor())
+                && grade >= 0 && grade <= 100
+                && homework.hasSubmitted(enrollee);
+    }
+
+    @Override
+    public boolean assignGrades(String instructorName, String className, int year, String homeworkName, Map<String, Integer> grades) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_ASSIGN_GRADES, () -> grade(instructorName, className, year, homeworkName, grades));
+    }
+
+    private boolean grade(String instructorName, String className, int year, String homeworkName, Map<String, Integer> grades) {
+        Course course = this.data.findCourse(className, year);
+        if (course == null || course.isFrozen()) return false;
+        Homework homework = course.getHomework(homeworkName);
+        if (homework == null) return false;
+        return this.data.journaled(course, journal -> grade(journal, instructorName, course, homework, grades));
+    }
+
+    private boolean grade(Journal journal, String instructorName, Course course, Homework homework, Map<String, Integer> grades) {
+        // Validate the whole batch before touching any grade
+        Enrollee[] enrollees = new Enrollee[grades.size()];
+        int[] values = new int[grades.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : grades.entrySet()) {
+            Enrollee enrollee = this.data.students.lookup(entry.getKey());
+            Integer grade = entry.getValue();
+            if (grade == null || !gradable(instructorName, course, homework, enrollee, grade)) return false;
+            enrollees[i] = enrollee;
+            values[i++] = grade;
         }
+        if (!homework.gradeStudents(enrollees, values)) return false; // Frozen before grading
+        for (i = 0; i < enrollees.length; i++) {
+            journal.assignGrade(instructorName, course.getName(), course.getYear(), homework.getName(), enrollees[i].getName(), values[i]);
+        }
+        return true;
+    }
+
+    @Override
+    public GradeStatistics getGradeStatistics(String className, int year, String homeworkName) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_GRADE_STATISTICS, () -> {
+            Course course = this.data.findCourse(className, year);
+            Homework homework = course == null ? null : course.getHomework(homeworkName);
+            return homework == null ? null : homework.getGradeStatistics();
+        }, Objects::nonNull);
+    }
+
+    @Override
+    public GradeStatistics getCourseGradeStatistics(String className, int year) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_COURSE_GRADE_STATISTICS, () -> {
+            Course course = this.data.findCourse(className, year);
+            return course == null ? null : course.getGradeStatistics();
+        }, Objects::nonNull);
     }
 
     @Override
     public boolean homeworkExists(String className, int year, String homeworkName) {
-        Course course = DataManager.findCourse(className, year);
-        if (course == null) return false;
-        return course.getHomework(homeworkName) != null;
+        return this.data.metrics.time(Operation.INSTRUCTOR_HOMEWORK_EXISTS, () -> {
+            Course course = this.data.findCourse(className, year);
+            return course != null && course.getHomework(homeworkName) != null;
+        });
     }
 
     @Override
     public Integer getGrade(String className, int year, String homeworkName, String studentName) {
-        Course course = DataManager.findCourse(className, year);
-        Enrollee student = DataManager.findStudent(studentName);
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_GRADE,
+                () -> findGrade(className, year, homeworkName, studentName), Objects::nonNull);
+    }
+
+    @Override
+    public Integer getGrade(int classId, int homeworkId, int studentId) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_GRADE, () -> {
+            Course course = this.data.findCourse(classId);
+            Homework homework = course == null ? null : course.getHomework(homeworkId);
+            Enrollee student = this.data.findStudent(studentId);
+            int grade = homework == null || student == null ? Homework.UNGRADED : homework.getGrade(student);
+            return grade == Homework.UNGRADED ? null : grade;
+        }, Objects::nonNull);
+    }
+
+    private Integer findGrade(String className, int year, String homeworkName, String studentName) {
+        Course course = this.data.findCourse(className, year);
+        Enrollee student = this.data.students.lookup(studentName);
         if (course == null || student == null) return null;
         Homework hw = course.getHomework(homeworkName);
         if (hw == null) return null;
-        Integer grade = hw.getGrade(student);
+        int grade = hw.getGrade(student);
+        if (grade == Homework.UNGRADED) return null;
         return grade;
     }
+
+    @Override
+    public String getSubmission(String className, int year, String homeworkName, String studentName) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_SUBMISSION,
+                () -> findSubmission(className, year, homeworkName, studentName), Objects::nonNull);
+    }
+
+    @Override
+    public String getSubmission(int classId, int homeworkId, int studentId) {
+        return this.data.metrics.time(Operation.INSTRUCTOR_GET_SUBMISSION, () -> {
+            Course course = this.data.findCourse(classId);
+            Homework homework = course == null ? null : course.getHomework(homeworkId);
+            Enrollee student = this.data.findStudent(studentId);
+            return homework == null || student == null ? null : homework.getSubmission(student);
+        }, Objects::nonNull);
+    }
+
+    private String findSubmission(String className, int year, String homeworkName, String studentName) {
+        Course course = this.data.findCourse(className, year);
+        Enrollee student = this.data.students.lookup(studentName);
+        if (course == null || student == null) return null;
+        Homework hw = course.getHomework(homeworkName);
+        if (hw == null) return null;
+        return hw.getSubmission(student);
+    }
 }
@@ -0,0 +1,139 @@
+package core.api.impl;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative int keys to int values, without boxing.
+ * Each entry costs two ints in parallel arrays, which are kept between one third and two thirds full.
+ *
+ * Not thread-safe; callers synchronize externally.
+ */
+class IntIntMap {
+    private static final int FREE = -1;
+
+    private final int missing;
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * @param missing Value returned by {@link #get(int)} for keys that are not present
+     */
+    protected IntIntMap(int missing) {
+        this.missing = missing;
+        this.keys = newKeys(8);
+        this.values = new int[8];
+        this.size = 0;
+    }
+
+    /**
+     * @return The value stored for {@code key}, or the missing value if there is none
+     */
+    protected int get(int key) {
+        int[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return this.values[slot];
+            if (k == FREE) return this.missing;
+        }
+    }
+
+    protected boolean containsKey(int key) {
+        int[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return true;
+            if (k == FREE) return false;
+        }
+    }
+
+    /**
+     * Store {@code value} for {@code key}.
+     *
+     * @return The previous value, or the missing value if there was none
+     */
+    protected int put(int key, int value) {
+        if (key < 0) throw new IllegalArgumentException("Negative key: " + key);
+        int mask = this.keys.length - 1;
+        int slot = mix(key) & mask;
+        while (this.keys[slot] != FREE) {
+            if (this.keys[slot] == key) {
+                int previous = this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size * 3 > this.keys.length * 2) grow();
+        return this.missing;
+    }
+
+    /**
+     * Call {@code visitor} once for every entry, in no particular order.
+     */
+    protected void forEach(EntryVisitor visitor) {
+        int[] keys = this.keys;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) visitor.visit(keys[slot], this.values[slot]);
+        }
+    }
+
+    /**
+     * @return Every key, in ascending order
+     */
+    protected int[] sortedKeys() {
+        int[] sorted = new int[this.size];
+        int count = 0;
+        for (int key : this.keys) {
+            if (key != FREE) sorted[count++] = key;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    protected int size() {
+        return this.size;
+    }
+
+    /**
+     * @return Number of slots currently allocated, for footprint accounting
+     */
+    protected int capacity() {
+        return this.keys.length;
+    }
+
+    private void grow() {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = newKeys(oldKeys.length * 2);
+        this.values = new int[oldKeys.length * 2];
+        int mask = this.keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == FREE) continue;
+            int slot = mix(key) & mask;
+            while (this.keys[slot] != FREE) slot = (slot + 1) & mask;
+            this.keys[slot] = key;
+            this.values[slot] = oldValues[i];
+        }
+    }
+
+    private static int[] newKeys(int length) {
+        int[] keys = new int[length];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    interface EntryVisitor {
+        void visit(int key, int value);
+    }
+}
@@ -0,0 +1,117 @@
+package core.api.impl;
+
+import java.util.Arrays;
+
+/**
+ * Persistent map from non-negative int keys to long values, without boxing: a radix trie with 32-way nodes that is
+ * never changed once built. {@link #with(int, long)} returns a new trie that shares every node off the path to
+ * {@code key} with this one, so a write copies at most one node per level (seven for the largest keys) however many
+ * entries the map holds, and a trie published through a volatile field can be read from any thread without locking.
+ *
+ * Meant for dense keys, such as ordinals handed out from 0: a leaf holds 32 consecutive keys, so sparse keys would
+ * each pay for a whole leaf and the nodes above it.
+ *
+ * Keys are visited in ascending order. A key mapped to the missing value is treated as absent.
+ */
+final class IntLongTrie {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private final long missing;
+    private final Object root; // long[WIDTH] leaf when shift is 0, else Object[WIDTH] of children; null when empty
+    private final int shift;   // bits below the root's index: the root covers keys < 1 << (shift + BITS)
+    private final int size;
+
+    /**
+     * @param missing Value returned by {@link #get(int)} for keys that are not present
+     */
+    IntLongTrie(long missing) {
+        this(missing, null, 0, 0);
+    }
+
+    private IntLongTrie(long missing, Object root, int shift, int size) {
+        this.missing = missing;
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * @return The value stored for {@code key}, or the missing value if there is none
+     */
+    long get(int key) {
+        if (key < 0 || (key >>> this.shift) > MASK) return this.missing;
+        Object node = this.root;
+        for (int s = this.shift; s > 0; s -= BITS) {
+            if (node == null) return this.missing;
+            node = ((Object[]) node)[(key >>> s) & MASK];
+        }
+        return node == null ? this.missing : ((long[]) node)[key & MASK];
+    }
+
+    /**
+     * @return A trie that maps {@code key} to {@code value} and is otherwise equal to this one, which is unchanged
+     */
+    IntLongTrie with(int key, long value) {
+        if (key < 0) throw new IllegalArgumentException("Negative key: " + key);
+        Object root = this.root;
+        int shift = this.shift;
+        while ((key >>> shift) > MASK) {
+            // Grow a level: the old root becomes the first child of the new one
+            Object[] parent = new Object[WIDTH];
+            parent[0] = root;
+            root = parent;
+            shift += BITS;
+        }
+        long previous = get(key);
+        if (previous == value) return this;
+        int size = this.size;
+        if (previous == this.missing) size++;
+        else if (value == this.missing) size--;
+        return new IntLongTrie(this.missing, with(root, shift, key, value), shift, size);
+    }
+
+    private Object with(Object node, int shift, int key, long value) {
+        int index = (key >>> shift) & MASK;
+        if (shift == 0) {
+            long[] leaf = node == null ? newLeaf() : ((long[]) node).clone();
+            leaf[index] = value;
+            return leaf;
+        }
+        Object[] copy = node == null ? new Object[WIDTH] : ((Object[]) node).clone();
+        copy[index] = with(copy[index], shift - BITS, key, value);
+        return copy;
+    }
+
+    /**
+     * Call {@code visitor} once for every entry, in ascending key order.
+     */
+    void forEach(IntLongMap.EntryVisitor visitor) {
+        if (this.root != null) forEach(this.root, this.shift, 0, visitor);
+    }
+
+    private void forEach(Object node, int shift, int base, IntLongMap.EntryVisitor visitor) {
+        if (shift == 0) {
+            long[] leaf = (long[]) node;
+            for (int i = 0; i < WIDTH; i++) {
+                if (leaf[i] != this.missing) visitor.visit(base | i, leaf[i]);
+            }
+            return;
+        }
+        Object[] children = (Object[]) node;
+        for (int i = 0; i < WIDTH; i++) {
+            if (children[i] != null) forEach(children[i], shift - BITS, base | (i << shift), visitor);
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private long[] newLeaf() {
+        long[] leaf = new long[WIDTH];
+        Arrays.fill(leaf, this.missing);
+        return leaf;
+    }
+}
@@ -0,0 +1,467 @@
+package core.api.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of every applied {@link DataManager} mutation.
+ *
+ * The file starts with {@code [int magic][long, long generation]}. The generation is a random UUID, replaced whenever
+ * the journal is {@linkplain #truncate() truncated}, so a snapshot can tell whether its journal position still refers
+ * to this journal. A file that does not start with the header is refused.
+ * Each record is {@code [int length][int crc32][byte op][fields...]}, with strings written as an int length and UTF-8 bytes.
+ * Records are collected in memory and written with a single fsync per group: a group is flushed once
+ * {@code batchSize} records are pending, or after at most {@code maxDelayMillis} by a background thread.
+ * The record methods only buffer, so callers can record a mutation in the same critical section that applies it
+ * (see {@link DataManager#journaled}) and records reach the file in the order their mutations took effect;
+ * {@link #sync()} then writes a full group once the caller's locks are released.
+ * Appenders keep filling a second buffer while a group is being forced to disk.
+ * A crash can lose at most the last unflushed group; a torn record at the tail is dropped on replay.
+ * A group that fails to be written goes back in front of the records appended since and is rewritten at the same
+ * offset by the next flush; until a flush succeeds, {@link #check()} and flushes rethrow the failure.
+ */
+class Journal implements Closeable {
+    /** A journal that records nothing, used when no journal file is configured */
+    static final Journal DISABLED = new Journal();
+
+    private static final byte CREATE_CLASS = 1;
+    private static final byte CHANGE_CAPACITY = 2;
+    private static final byte REGISTER_FOR_CLASS = 3;
+    private static final byte DROP_CLASS = 4;
+    private static final byte ADD_HOMEWORK = 5;
+    private static final byte SUBMIT_HOMEWORK = 6;
+    private static final byte ASSIGN_GRADE = 7;
+    private static final byte FREEZE_YEAR = 8;
+
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final int MAGIC = 0x48574A31; // "HWJ1"
+    private static final int FILE_HEADER = Integer.BYTES + 2 * Long.BYTES;
+
+    private final FileChannel channel;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+
+    private ByteBuffer active; // guarded by this
+    private ByteBuffer spare;  // guarded by this, null while a group is being written
+    private int pending;       // guarded by this
+    private long appended;     // guarded by this, file offset just past the last appended record
+    private IOException failure; // guarded by this, set by a failed flush until a later one succeeds
+    private long flushed;      // guarded by flushLock, file offset just past the last record written
+    private volatile UUID generation;
+
+    private Journal() {
+        this.channel = null;
+        this.batchSize = 0;
+        this.flusher = null;
+    }
+
+    private Journal(FileChannel channel, int batchSize, long maxDelayMillis) {
+        this.channel = channel;
+        this.batchSize = Math.max(1, batchSize);
+        this.active = ByteBuffer.allocate(64 << 10);
+        this.spare = ByteBuffer.allocate(64 << 10);
+        if (maxDelayMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, maxDelayMillis, maxDelayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Open (or create) the journal at {@code file}. New records are appended after the last valid record.
+     *
+     * @throws IOException If the file exists but is not a journal
+     * @param batchSize Number of records written per fsync; 1 forces every record to disk before returning
+     * @param maxDelayMillis Longest time a record may wait for its group to be flushed, or 0 to flush only on full groups
+     */
+    protected static Journal open(Path file, int batchSize, long maxDelayMillis) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        Journal journal = new Journal(channel, batchSize, maxDelayMillis);
+        if (channel.size() == 0) {
+            journal.writeHeader();
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) break;
+            }
+            header.flip();
+            if (header.remaining() != FILE_HEADER || header.getInt() != MAGIC) {
+                journal.close();
+                throw new IOException("Not a journal file: " + file);
+            }
+            journal.generation = new UUID(header.getLong(), header.getLong());
+        }
+        journal.appended = channel.size();
+        journal.flushed = channel.size();
+        return journal;
+    }
+
+    /**
+     * Start the empty file with a header naming a new generation.
+     */
+    private void writeHeader() throws IOException {
+        UUID generation = UUID.randomUUID();
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        header.putInt(MAGIC).putLong(generation.getMostSignificantBits()).putLong(generation.getLeastSignificantBits());
+        header.flip();
+        while (header.hasRemaining()) this.channel.write(header, header.position());
+        this.channel.force(true);
+        this.channel.position(FILE_HEADER);
+        this.generation = generation;
+    }
+
+    /**
+     * @return Id of the records currently in the journal, or null if there is no journal
+     */
+    protected UUID generation() {
+        return this.generation;
+    }
+
+    /**
+     * Re-apply every valid record at or after file offset {@code from}, in order, through the uninstrumented mutation
+     * methods behind the given APIs, so replay does not show up in their call statistics.
+     * The file is truncated after the last valid record so a torn tail is overwritten by new appends.
+     *
+     * @param from Offset of the first record to replay, as returned by {@link #position()}; 0 replays everything
+     * @return The number of records that took effect; records the model refuses are skipped and not counted
+     */
+    protected synchronized int replay(long from, Admin admin, Student student, Instructor instructor) throws IOException {
+        long size = this.channel.size();
+        long valid = Math.max(FILE_HEADER, Math.min(from, size));
+        int count = 0;
+        if (size > valid) {
+            MappedByteBuffer in = this.channel.map(FileChannel.MapMode.READ_ONLY, valid, size - valid);
+            CRC32 crc = new CRC32();
+            while (in.remaining() >= HEADER) {
+                int length = in.getInt();
+                int checksum = in.getInt();
+                if (length <= 0 || length > in.remaining()) break;
+                ByteBuffer body = in.slice();
+                body.limit(length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+                if (apply(body, admin, student, instructor)) count++;
+                in.position(in.position() + length);
+                valid += HEADER + length;
+            }
+        }
+        this.channel.truncate(valid);
+        this.channel.position(valid);
+        this.appended = valid;
+        synchronized (this.flushLock) {
+            this.flushed = valid;
+        }
+        return count;
+    }
+
+    /**
+     * @return Whether the record took effect
+     */
+    private static boolean apply(ByteBuffer body, Admin admin, Student student, Instructor instructor) {
+        byte op = body.get();
+        switch (op) {
+            case CREATE_CLASS:
+                // Recorded creations were admitted when they were made, so only the model's own rules apply now
+                return admin.addClass(readString(body), body.getInt(), readString(body), body.getInt());
+            case CHANGE_CAPACITY:
+                return admin.resize(readString(body), body.getInt(), body.getInt());
+            case REGISTER_FOR_CLASS:
+                return student.register(readString(body), readString(body), body.getInt());
+            case DROP_CLASS:
+                return student.drop(readString(body), readString(body), body.getInt());
+            case ADD_HOMEWORK:
+                return instructor.add(readString(body), readString(body), body.getInt(), readString(body));
+            case SUBMIT_HOMEWORK:
+                return student.submit(readString(body), readString(body), readString(body), readString(body), body.getInt());
+            case ASSIGN_GRADE:
+                return instructor.grade(readString(body), readString(body), body.getInt(), readString(body), readString(body), body.getInt());
+            case FREEZE_YEAR:
+                return admin.freeze(body.getInt());
+            default:
+                throw new IllegalStateException("Unknown journal record type " + op);
+        }
+    }
+
+    protected void createClass(String className, int year, String instructorName, int capacity) {
+        if (this.channel == null) return;
+        Record record = new Record(CREATE_CLASS);
+        record.string(className).integer(year).string(instructorName).integer(capacity);
+        append(record);
+    }
+
+    protected void changeCapacity(String className, int year, int capacity) {
+        if (this.channel == null) return;
+        Record record = new Record(CHANGE_CAPACITY);
+        record.string(className).integer(year).integer(capacity);
+        append(record);
+    }
+
+    protected void registerForClass(String studentName, String className, int year) {
+        if (this.channel == null) return;
+        Record record = new Record(REGISTER_FOR_CLASS);
+        record.string(studentName).string(className).integer(year);
+        append(record);
+    }
+
+    protected void dropClass(String studentName, String className, int year) {
+        if (this.channel == null) return;
+        Record record = new Record(DROP_CLASS);
+        record.string(studentName).string(className).integer(year);
+        append(record);
+    }
+
+    protected void addHomework(String instructorName, String className, int year, String homeworkName) {
+        if (this.channel == null) return;
+        Record record = new Record(ADD_HOMEWORK);
+        record.string(instructorName).string(className).integer(year).string(homeworkName);
+        append(record);
+    }
+
+    protected void submitHomework(String studentName, String homeworkName, String answerString, String className, int year) {
+        if (this.channel == null) return;
+        Record record = new Record(SUBMIT_HOMEWORK);
+        record.string(studentName).string(homeworkName).string(answerString).string(className).integer(year);
+        append(record);
+    }
+
+    protected void assignGrade(String instructorName, String className, int year, String homeworkName, String studentName, int grade) {
+        if (this.channel == null) return;
+        Record record = new Record(ASSIGN_GRADE);
+        record.string(instructorName).string(className).integer(year).string(homeworkName).string(studentName).integer(grade);
+        append(record);
+    }
+
+    protected void freezeYear(int year) {
+        if (this.channel == null) return;
+        Record record = new Record(FREEZE_YEAR);
+        record.integer(year);
+        append(record);
+    }
+
+    private void append(Record record) {
+        byte[] body = record.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        synchronized (this) {
+            if (this.active.remaining() < HEADER + body.length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(this.active.capacity() * 2, this.active.position() + HEADER + body.length));
+                this.active.flip();
+                grown.put(this.active);
+                this.active = grown;
+            }
+            this.active.putInt(body.length).putInt((int) crc.getValue()).put(body);
+            this.appended += HEADER + body.length;
+            this.pending++;
+        }
+    }
+
+    /**
+     * Throw the failure of the last flush, if it has not succeeded since. Called before applying a mutation, so
+     * nothing is changed that cannot be journaled.
+     */
+    protected void check() {
+        if (this.channel == null) return;
+        synchronized (this) {
+            if (this.failure != null) throw new UncheckedIOException(this.failure);
+        }
+    }
+
+    /**
+     * Flush if a whole group is pending. Called after recording, outside the locks held while recording.
+     */
+    protected void sync() {
+        if (this.channel == null) return;
+        synchronized (this) {
+            if (this.pending < this.batchSize) return;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return File offset at which the next record will be written. Records appended later replay from here.
+     */
+    protected synchronized long position() {
+        return this.appended;
+    }
+
+    /**
+     * Write all pending records and force them to disk.
+     *
+     * @throws IOException If the records could not be written; they stay pending and the next flush retries them
+     */
+    protected void flush() throws IOException {
+        if (this.channel == null) return;
+        synchronized (this.flushLock) {
+            ByteBuffer group;
+            int count;
+            synchronized (this) {
+                if (this.pending == 0) return;
+                group = this.active;
+                count = this.pending;
+                this.active = this.spare;
+                this.spare = null;
+                this.pending = 0;
+            }
+            group.flip();
+            long offset = this.flushed;
+            try {
+                // Positional writes, so a retry overwrites whatever part of a failed attempt reached the file
+                while (group.hasRemaining()) offset += this.channel.write(group, offset);
+                this.channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                restore(group, count, e instanceof IOException ? (IOException) e : new IOException(e));
+                throw e;
+            }
+            this.flushed = offset;
+            group.clear();
+            synchronized (this) {
+                this.spare = group;
+                this.failure = null;
+            }
+        }
+    }
+
+    /**
+     * Put a group that failed to be written back in front of the records appended while it was being written.
+     */
+    private synchronized void restore(ByteBuffer group, int count, IOException failure) {
+        ByteBuffer appended = this.active;
+        appended.flip();
+        group.position(group.limit());
+        group.limit(group.capacity());
+        if (group.remaining() < appended.remaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(group.position() + appended.remaining());
+            group.flip();
+            grown.put(group);
+            group = grown;
+        }
+        group.put(appended);
+        appended.clear();
+        this.active = group;
+        this.spare = appended;
+        this.pending += count;
+        this.failure = failure;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            // The next explicit flush or full group reports the failure
+        }
+    }
+
+    /**
+     * Discard every record, pending or written, and start a new generation.
+     */
+    protected void truncate() throws IOException {
+        if (this.channel == null) return;
+        synchronized (this.flushLock) {
+            synchronized (this) {
+                this.active.clear();
+                this.pending = 0;
+                this.failure = null;
+            }
+            this.channel.truncate(0);
+            writeHeader();
+            this.flushed = FILE_HEADER;
+            synchronized (this) {
+                this.appended = FILE_HEADER;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel == null) return;
+        if (this.flusher != null) {
+            // shutdownNow() would interrupt a flush in progress, which closes the channel under it
+            this.flusher.shutdown();
+            try {
+                this.flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serialized body of one journal record.
+     */
+    private static final class Record {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+        Record(byte op) {
+            this.bytes.write(op);
+        }
+
+        Record string(String value) {
+            try {
+                if (value == null) {
+                    this.out.writeInt(-1);
+                } else {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    this.out.writeInt(encoded.length);
+                    this.out.write(encoded);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Record integer(int value) {
+            try {
+                this.out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return this.bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package core.api.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Statistics of every {@link Operation} of one {@link DataManager}, optionally published as MBeans named
+ * {@code core.api:type=Operation,store=<store>,api=<class>,name=<method>}, plus the outcomes of the roster and
+ * submission {@link BloomFilter}s, published as {@code core.api:type=Filter,store=<store>,name=<roster|submissions>}.
+ */
+class Metrics {
+    static final String DOMAIN = "core.api";
+
+    private final OperationStats[] stats;
+    final FilterStats rosters = new FilterStats();
+    final FilterStats submissions = new FilterStats();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    Metrics() {
+        Operation[] operations = Operation.values();
+        this.stats = new OperationStats[operations.length];
+        for (int i = 0; i < operations.length; i++) this.stats[i] = new OperationStats();
+    }
+
+    OperationStats get(Operation operation) {
+        return this.stats[operation.ordinal()];
+    }
+
+    /**
+     * Run {@code call} as one call of {@code operation}, recording its latency, whether it was rejected and whether it threw.
+     *
+     * @param applied Tells from the result whether the call changed or found something
+     */
+    <T> T time(Operation operation, Supplier<T> call, Predicate<? super T> applied) {
+        OperationStats stats = get(operation);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            stats.record(start, applied.test(result));
+            return result;
+        } catch (RuntimeException e) {
+            stats.fail(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #time(Operation, Supplier, Predicate)} for a call whose result is whether it changed or found something.
+     */
+    boolean time(Operation operation, BooleanSupplier call) {
+        OperationStats stats = get(operation);
+        long start = System.nanoTime();
+        try {
+            boolean applied = call.getAsBoolean();
+            stats.record(start, applied);
+            return applied;
+        } catch (RuntimeException e) {
+            stats.fail(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Register one MBean per operation and one per kind of filter with the platform MBean server.
+     */
+    synchronized void register(String store) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Operation operation : Operation.values()) {
+                register(server, objectName(store, operation), get(operation));
+            }
+            register(server, filterName(store, "roster"), this.rosters);
+            register(server, filterName(store, "submissions"), this.submissions);
+        } catch (JMException e) {
+            unregister();
+            throw e;
+        }
+    }
+
+    private void register(MBeanServer server, ObjectName name, Object bean) throws JMException {
+        server.registerMBean(bean, name);
+        this.registered.add(name);
+    }
+
+    /**
+     * Remove every MBean registered by {@link #register(String)}.
+     */
+    synchronized void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : this.registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already unregistered by someone else
+            }
+        }
+        this.registered.clear();
+    }
+
+    static ObjectName objectName(String store, Operation operation) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Operation,store=" + ObjectName.quote(store)
+                + ",api=" + operation.getApi() + ",name=" + operation.getMethod());
+    }
+
+    static ObjectName filterName(String store, String filter) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Filter,store=" + ObjectName.quote(store) + ",name=" + filter);
+    }
+}
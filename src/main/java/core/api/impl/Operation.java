@@ -0,0 +1,60 @@
+package core.api.impl;
+
+/**
+ * Every instrumented API call, with the class and method name under which its statistics are published.
+ */
+enum Operation {
+    ADMIN_CREATE_CLASS("Admin", "createClass"),
+    ADMIN_CHANGE_CAPACITY("Admin", "changeCapacity"),
+    ADMIN_FREEZE_YEAR("Admin", "freezeYear"),
+    ADMIN_IS_FROZEN("Admin", "isFrozen"),
+    ADMIN_CLASS_EXISTS("Admin", "classExists"),
+    ADMIN_GET_CLASS_INSTRUCTOR("Admin", "getClassInstructor"),
+    ADMIN_GET_CLASS_CAPACITY("Admin", "getClassCapacity"),
+
+    STUDENT_REGISTER_FOR_CLASS("Student", "registerForClass"),
+    STUDENT_DROP_CLASS("Student", "dropClass"),
+    STUDENT_SUBMIT_HOMEWORK("Student", "submitHomework"),
+    STUDENT_GET_TRANSCRIPT("Student", "getTranscript"),
+    STUDENT_IS_REGISTERED_FOR("Student", "isRegisteredFor"),
+    STUDENT_GET_WAITLIST_POSITION("Student", "getWaitlistPosition"),
+    STUDENT_HAS_SUBMITTED("Student", "hasSubmitted"),
+
+    INSTRUCTOR_ADD_HOMEWORK("Instructor", "addHomework"),
+    INSTRUCTOR_ASSIGN_GRADE("Instructor", "assignGrade"),
+    INSTRUCTOR_ASSIGN_GRADES("Instructor", "assignGrades"),
+    INSTRUCTOR_GET_GRADE_STATISTICS("Instructor", "getGradeStatistics"),
+    INSTRUCTOR_GET_COURSE_GRADE_STATISTICS("Instructor", "getCourseGradeStatistics"),
+    INSTRUCTOR_HOMEWORK_EXISTS("Instructor", "homeworkExists"),
+    INSTRUCTOR_GET_GRADE("Instructor", "getGrade"),
+    INSTRUCTOR_GET_SUBMISSION("Instructor", "getSubmission"),
+
+    REGISTRAR_REGISTER_FOR_CLASS("Registrar", "registerForClass"),
+    REGISTRAR_REGISTER_FOR_CLASSES("Registrar", "registerForClasses"),
+
+    ASYNC_STUDENT_REGISTER_FOR_CLASS("AsyncStudent", "registerForClass"),
+    ASYNC_STUDENT_DROP_CLASS("AsyncStudent", "dropClass"),
+    ASYNC_STUDENT_SUBMIT_HOMEWORK("AsyncStudent", "submitHomework"),
+    ASYNC_INSTRUCTOR_ASSIGN_GRADE("AsyncInstructor", "assignGrade"),
+
+    COURSE_MANAGER_CREATE_CLASS("CourseManager", "createClass"),
+    COURSE_MANAGER_CLASS_EXISTS("CourseManager", "classExists"),
+    COURSE_MANAGER_GET_CLASS_INSTRUCTOR("CourseManager", "getClassInstructor"),
+    COURSE_MANAGER_GET_CLASS_CAPACITY("CourseManager", "getClassCapacity");
+
+    private final String api;
+    private final String method;
+
+    Operation(String api, String method) {
+        this.api = api;
+        this.method = method;
+    }
+
+    String getApi() {
+        return this.api;
+    }
+
+    String getMethod() {
+        return this.method;
+    }
+}
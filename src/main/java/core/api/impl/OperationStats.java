@@ -0,0 +1,146 @@
+package core.api.impl;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counters and latency histogram of one API operation.
+ *
+ * Recording is a {@link System#nanoTime()} pair and a few {@link LongAdder} increments, so it can stay enabled in
+ * production and scales with the number of calling threads. The histogram is log-linear: values below
+ * {@value #SUB_BUCKETS} ns are counted exactly, and every power of two above is split into {@value #SUB_BUCKETS}
+ * equal buckets. Values beyond the last bucket (about 68 s) are counted in it.
+ */
+class OperationStats implements OperationStatsMBean {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    OperationStats() {
+        for (int i = 0; i < BUCKETS; i++) this.buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Record a call that returned normally.
+     *
+     * @param start {@link System#nanoTime()} taken when the call began
+     * @param applied False if the call changed or found nothing
+     */
+    void record(long start, boolean applied) {
+        if (!applied) this.rejected.increment();
+        latency(System.nanoTime() - start);
+    }
+
+    /**
+     * Record a call that threw.
+     */
+    void fail(long start) {
+        this.failed.increment();
+        latency(System.nanoTime() - start);
+    }
+
+    private void latency(long nanos) {
+        if (nanos < 0) nanos = 0;
+        this.calls.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+        this.buckets[bucket(nanos)].increment();
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return The largest value counted in {@code bucket}
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * @return The latency below or at which {@code quantile} of the calls completed, or 0 if there were none
+     */
+    long percentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), getMaxNanos());
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public long getCalls() {
+        return this.calls.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    @Override
+    public long getMeanNanos() {
+        long calls = getCalls();
+        return calls == 0 ? 0 : this.totalNanos.sum() / calls;
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return percentile(0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    @Override
+    public void reset() {
+        this.calls.reset();
+        this.rejected.reset();
+        this.failed.reset();
+        this.totalNanos.reset();
+        this.maxNanos.reset();
+        for (LongAdder bucket : this.buckets) bucket.reset();
+    }
+}
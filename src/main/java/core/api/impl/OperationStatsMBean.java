@@ -0,0 +1,28 @@
+package core.api.impl;
+
+/**
+ * JMX view of the statistics of one API operation. Latencies are in nanoseconds; percentiles are accurate
+ * to within one histogram bucket (12.5%) and report the bucket's upper bound.
+ */
+public interface OperationStatsMBean {
+
+    long getCalls();
+
+    /** Calls that changed nothing (mutations) or found nothing (queries), e.g. because the class does not exist */
+    long getRejected();
+
+    /** Calls that ended with an exception */
+    long getFailed();
+
+    long getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+
+    void reset();
+}
@@ -0,0 +1,74 @@
+package core.api.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every student who submits to or is graded in a course a dense ordinal within that course, so the course's
+ * homeworks can key their submissions and grades by small consecutive integers rather than by store-wide student ids.
+ * Ordinals are handed out in first-use order starting at 0 and are never reused, and each is shared by every homework
+ * of the course.
+ *
+ * Lookups never lock; only assigning an ordinal to a student new to the course takes the index's monitor.
+ */
+class OrdinalIndex {
+    static final int NONE = -1;
+
+    private final Map<Enrollee, Integer> ordinals;
+    private volatile Enrollee[] byOrdinal;
+    private volatile int size;
+
+    protected OrdinalIndex() {
+        this.ordinals = new ConcurrentHashMap<>();
+        this.byOrdinal = new Enrollee[16];
+        this.size = 0;
+    }
+
+    /**
+     * @return The ordinal of {@code enrollee} in this course, or {@link #NONE} if they have none
+     */
+    protected int lookup(Enrollee enrollee) {
+        Integer ordinal = this.ordinals.get(enrollee);
+        return ordinal == null ? NONE : ordinal;
+    }
+
+    /**
+     * @return The ordinal of {@code enrollee} in this course, assigning the next one if needed
+     */
+    protected int intern(Enrollee enrollee) {
+        Integer ordinal = this.ordinals.get(enrollee);
+        if (ordinal != null) return ordinal;
+        synchronized (this) {
+            ordinal = this.ordinals.get(enrollee);
+            if (ordinal != null) return ordinal;
+            int next = this.size;
+            Enrollee[] students = this.byOrdinal;
+            if (next == students.length) students = Arrays.copyOf(students, next * 2);
+            students[next] = enrollee;
+            // The volatile writes publish the student before the ordinal can be found, even when the array was not copied
+            this.byOrdinal = students;
+            this.size = next + 1;
+            this.ordinals.put(enrollee, next);
+            return next;
+        }
+    }
+
+    /**
+     * @return The student behind {@code ordinal}, which must have been returned by {@link #intern(Enrollee)}
+     */
+    protected Enrollee student(int ordinal) {
+        return this.byOrdinal[ordinal];
+    }
+
+    /**
+     * @return The id of the student behind {@code ordinal}, which must have been returned by {@link #intern(Enrollee)}
+     */
+    protected int studentId(int ordinal) {
+        return this.byOrdinal[ordinal].getId();
+    }
+
+    protected int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,105 @@
+package core.api.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import core.api.IRegistrar;
+import core.api.RegistrationResult;
+
+/**
+ * Registers batches of students, resolving each course once and reserving its seats in a single step.
+ */
+public class Registrar implements IRegistrar {
+
+    private final DataManager data;
+
+    public Registrar(DataManager data) {
+        this.data = data;
+    }
+
+    @Override
+    public RegistrationResult[] registerForClass(String[] studentNames, String className, int year) {
+        return this.data.metrics.time(Operation.REGISTRAR_REGISTER_FOR_CLASS,
+                () -> register(studentNames, className, year), Registrar::anyApplied);
+    }
+
+    private RegistrationResult[] register(String[] studentNames, String className, int year) {
+        RegistrationResult[] results = new RegistrationResult[studentNames.length];
+        int[] entries = new int[studentNames.length];
+        for (int i = 0; i < entries.length; i++) entries[i] = i;
+        register(this.data.findCourse(className, year), studentNames, entries, entries.length, results);
+        return results;
+    }
+
+    @Override
+    public RegistrationResult[] registerForClasses(String[] studentNames, String[] classNames, int[] years) {
+        if (studentNames.length != classNames.length || studentNames.length != years.length) {
+            throw new IllegalArgumentException("studentNames, classNames and years must have the same length");
+        }
+        return this.data.metrics.time(Operation.REGISTRAR_REGISTER_FOR_CLASSES,
+                () -> register(studentNames, classNames, years), Registrar::anyApplied);
+    }
+
+    private RegistrationResult[] register(String[] studentNames, String[] classNames, int[] years) {
+        RegistrationResult[] results = new RegistrationResult[studentNames.length];
+
+        // Group entries by course so each course is resolved and reserved once
+        Map<CourseKey, List<Integer>> byCourse = new HashMap<>();
+        for (int i = 0; i < studentNames.length; i++) {
+            byCourse.computeIfAbsent(new CourseKey(classNames[i], years[i]), k -> new ArrayList<>()).add(i);
+        }
+        int[] entries = new int[studentNames.length];
+        for (Map.Entry<CourseKey, List<Integer>> group : byCourse.entrySet()) {
+            List<Integer> indices = group.getValue();
+            for (int j = 0; j < indices.size(); j++) entries[j] = indices.get(j);
+            Course course = this.data.findCourse(group.getKey().getName(), group.getKey().getYear());
+            register(course, studentNames, entries, indices.size(), results);
+        }
+        return results;
+    }
+
+    private static boolean anyApplied(RegistrationResult[] results) {
+        for (RegistrationResult result : results) {
+            if (result == RegistrationResult.REGISTERED || result == RegistrationResult.WAITLISTED) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Register {@code studentNames[entries[0..count)]} for {@code course}, writing outcomes into {@code results}.
+     */
+    private void register(Course course, String[] studentNames, int[] entries, int count, RegistrationResult[] results) {
+        if (course == null) {
+            for (int j = 0; j < count; j++) results[entries[j]] = RegistrationResult.NO_SUCH_CLASS;
+            return;
+        }
+        this.data.journaled(course, journal -> register(journal, course, studentNames, entries, count, results));
+    }
+
+    private RegistrationResult[] register(Journal journal, Course course, String[] studentNames, int[] entries, int count, RegistrationResult[] results) {
+        int seats = course.hasWaitlist() ? 0 : course.reserveSeats(count);
+        for (int j = 0; j < count; j++) {
+            int i = entries[j];
+            Enrollee enrollee = this.data.findStudent(studentNames[i]);
+            if (seats > 0 && course.addReservedStudent(enrollee)) {
+                seats--;
+                journal.registerForClass(studentNames[i], course.getName(), course.getYear());
+                results[i] = RegistrationResult.REGISTERED;
+            } else if (course.isEnrolled(enrollee)) {
+                results[i] = RegistrationResult.ALREADY_REGISTERED;
+            } else if (course.isFrozen()) {
+                results[i] = RegistrationResult.CLASS_CLOSED;
+            } else {
+                if (course.addWaiting(enrollee)) {
+                    journal.registerForClass(studentNames[i], course.getName(), course.getYear());
+                }
+                // Joining the waitlist may have been promoted straight away
+                results[i] = course.isEnrolled(enrollee) ? RegistrationResult.REGISTERED : RegistrationResult.WAITLISTED;
+            }
+        }
+        course.releaseSeats(seats);
+        return results;
+    }
+}
@@ -0,0 +1,269 @@
+package core.api.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Point-in-time binary image of the whole {@link DataManager} model.
+ *
+ * Layout (big-endian): {@code int magic, int version, long journalPosition, long, long journalGeneration}, then the
+ * student names in id order, then per course its name, year, instructor, capacity, enrolled student ids, waitlisted
+ * student ids in line order and, per homework in ordinal order, its name, (student id, answer) submissions and
+ * (student id, grade) grades, and finally the frozen years. Counts precede every list and strings are an int length
+ * followed by UTF-8 bytes. The journal position only means something in the journal generation it was taken from, so
+ * a snapshot of another generation is not loaded. Files of any other version are rejected.
+ *
+ * {@link #capture(DataManager, UUID, long)} runs on the calling thread but copies only what is not versioned: each course's
+ * settings, roster and waitlist. Of every homework it keeps a reference to the published {@link Homework.Version}, which
+ * never changes, and of the students only their count, since the registry only ever appends. Names, submissions and
+ * grades are read, and answers fetched from the {@link SubmissionStore}, while encoding on a background thread.
+ * Loading maps the file read-only.
+ */
+class Snapshot {
+    private static final int MAGIC = 0x48575331; // "HWS1"
+    private static final int VERSION = 4;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DataManager data;
+    private final UUID journalGeneration;
+    private final long journalPosition;
+    private final int studentCount;
+    private final List<CourseImage> courses;
+    private final int[] frozenYears;
+
+    private Snapshot(DataManager data, UUID journalGeneration, long journalPosition, int studentCount, List<CourseImage> courses, int[] frozenYears) {
+        this.data = data;
+        this.journalGeneration = journalGeneration;
+        this.journalPosition = journalPosition;
+        this.studentCount = studentCount;
+        this.courses = courses;
+        this.frozenYears = frozenYears;
+    }
+
+    /**
+     * Copy the current model of {@code data}. The caller must hold off journaled mutations from before
+     * {@code journalPosition} is read until this returns (see {@link DataManager#checkpoint(Path)}), so that the copy holds
+     * exactly the mutations journaled before that position; replaying a mutation twice is not generally safe.
+     *
+     * @param journalGeneration Generation of the journal, or null if there is none
+     * @param journalPosition Journal offset up to which mutations are included
+     */
+    protected static Snapshot capture(DataManager data, UUID journalGeneration, long journalPosition) {
+        List<CourseImage> courses = new ArrayList<>();
+        List<Integer> frozenYears = new ArrayList<>();
+        for (Term term : data.terms.values()) {
+            // Checked first: a term frozen during the capture still has all its courses copied
+            if (term.isFrozen()) frozenYears.add(term.getYear());
+            for (Course course : term.getCourses()) {
+                courses.add(new CourseImage(course));
+            }
+        }
+        // Taken last so every id referenced by a course is included
+        return new Snapshot(data, journalGeneration, journalPosition, data.students.size(), courses, frozenYears.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Write this snapshot to {@code file} on the background writer thread.
+     * The file is replaced atomically once it has been written and forced to disk.
+     */
+    protected CompletableFuture<Void> writeAsync(Path file) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                write(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    private void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(this.journalPosition);
+            UUID generation = this.journalGeneration == null ? new UUID(0, 0) : this.journalGeneration;
+            out.writeLong(generation.getMostSignificantBits());
+            out.writeLong(generation.getLeastSignificantBits());
+            out.writeInt(this.studentCount);
+            for (int id = 0; id < this.studentCount; id++) writeString(out, this.data.students.get(id).getName());
+            out.writeInt(this.courses.size());
+            for (CourseImage course : this.courses) course.write(out, this.data.submissions);
+            out.writeInt(this.frozenYears.length);
+            for (int year : this.frozenYears) out.writeInt(year);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replace the model of {@code data} with the snapshot stored in {@code file}, if it was taken from journal
+     * generation {@code journalGeneration}. Otherwise {@code data} is left alone and the whole journal must be replayed.
+     *
+     * @param journalGeneration Generation of the journal that will be replayed after the snapshot
+     * @return The journal offset from which mutations newer than the snapshot must be replayed, or 0 if the snapshot
+     *         was not loaded
+     */
+    protected static long load(DataManager data, Path file, UUID journalGeneration) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) throw new IOException("Not a snapshot file: " + file);
+            int version = in.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            long journalPosition = in.getLong();
+            if (!journalGeneration.equals(new UUID(in.getLong(), in.getLong()))) return 0;
+
+            data.reset();
+            int studentCount = in.getInt();
+            Enrollee[] students = new Enrollee[studentCount];
+            for (int id = 0; id < studentCount; id++) {
+                students[id] = data.students.intern(readString(in));
+            }
+            int courseCount = in.getInt();
+            for (int c = 0; c < courseCount; c++) {
+                Course course = new Course(readString(in), in.getInt(), readString(in), 0, data.submissions);
+                data.addCourse(course);
+                int capacity = in.getInt();
+                int enrolled = in.getInt();
+                course.setCapacity(Math.max(capacity, enrolled));
+                for (int i = 0; i < enrolled; i++) {
+                    course.addStudent(students[in.getInt()]);
+                }
+                course.setCapacity(capacity);
+                int waiting = in.getInt();
+                for (int i = 0; i < waiting; i++) {
+                    course.addWaiting(students[in.getInt()]);
+                }
+                int homeworkCount = in.getInt();
+                for (int h = 0; h < homeworkCount; h++) {
+                    Homework homework = course.addHomework(readString(in));
+                    int submissions = in.getInt();
+                    for (int i = 0; i < submissions; i++) {
+                        homework.submit(students[in.getInt()], readString(in));
+                    }
+                    int grades = in.getInt();
+                    for (int i = 0; i < grades; i++) {
+                        homework.gradeStudent(students[in.getInt()], in.getInt());
+                    }
+                }
+            }
+            int frozenCount = in.getInt();
+            for (int i = 0; i < frozenCount; i++) data.freezeYear(in.getInt());
+            return journalPosition;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy of one course, taken by {@link #capture(DataManager, UUID, long)}.
+     */
+    private static final class CourseImage {
+        private final String name;
+        private final int year;
+        private final String instructor;
+        private final int capacity;
+        private final int[] enrolled;
+        private final int[] waitlisted;
+        private final List<HomeworkImage> homeworks;
+
+        CourseImage(Course course) {
+            this.name = course.getName();
+            this.year = course.getYear();
+            this.instructor = course.getInstructor();
+            this.capacity = course.getCapacity();
+            this.enrolled = course.getEnrolleeIds();
+            this.waitlisted = course.getWaitlistIds();
+            this.homeworks = new ArrayList<>();
+            for (int ordinal = 0; ordinal < course.getHomeworkCount(); ordinal++) {
+                this.homeworks.add(new HomeworkImage(course.getHomework(ordinal)));
+            }
+        }
+
+        void write(DataOutputStream out, SubmissionStore submissions) throws IOException {
+            writeString(out, this.name);
+            out.writeInt(this.year);
+            writeString(out, this.instructor);
+            out.writeInt(this.capacity);
+            out.writeInt(this.enrolled.length);
+            for (int id : this.enrolled) out.writeInt(id);
+            out.writeInt(this.waitlisted.length);
+            for (int id : this.waitlisted) out.writeInt(id);
+            out.writeInt(this.homeworks.size());
+            for (HomeworkImage homework : this.homeworks) homework.write(out, submissions);
+        }
+    }
+
+    /**
+     * Version of one homework, taken by {@link #capture(DataManager, UUID, long)}. Answers stay in the {@link SubmissionStore} until written.
+     */
+    private static final class HomeworkImage {
+        private final String name;
+        private final Homework.Version version;
+
+        HomeworkImage(Homework homework) {
+            this.name = homework.getName();
+            this.version = homework.version();
+        }
+
+        void write(DataOutputStream out, SubmissionStore store) throws IOException {
+            writeString(out, this.name);
+            out.writeInt(this.version.submissionCount());
+            IOException[] failure = new IOException[1];
+            this.version.forEachSubmission((id, offset) -> {
+                try {
+                    out.writeInt(id);
+                    writeString(out, store.read(offset));
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            out.writeInt(this.version.gradeCount());
+            this.version.forEachGrade((id, grade) -> {
+                try {
+                    out.writeInt(id);
+                    out.writeInt(grade);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+        }
+    }
+}
@@ -1,64 +1,206 @@
 package core.api.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 import core.api.IStudent;
+import core.api.TranscriptEntry;
 
 /**
  * Created by Vincent on 21/2/2017.
  */
 public class Student implements IStudent {
 
+    private final DataManager data;
+
+    public Student(DataManager data) {
+        this.data = data;
+    }
+
     @Override
     public void registerForClass(String studentName, String className, int year) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (course != null && enrollee != null) {
-            enrollee.addCourse(course);
-            course.addStudent(enrollee);
-        }
+        this.data.metrics.time(Operation.STUDENT_REGISTER_FOR_CLASS, () -> register(studentName, className, year));
+    }
+
+    @Override
+    public void registerForClass(int studentId, int classId) {
+        this.data.metrics.time(Operation.STUDENT_REGISTER_FOR_CLASS, () -> register(this.data.findStudent(studentId), this.data.findCourse(classId)));
+    }
+
+    boolean register(String studentName, String className, int year) {
+        return register(this.data.findStudent(studentName), this.data.findCourse(className, year));
+    }
+
+    private boolean register(Enrollee enrollee, Course course) {
+        return course != null && enrollee != null && this.data.journaled(course, journal -> {
+            if (!course.addStudent(enrollee) && !course.addWaiting(enrollee)) return false;
+            journal.registerForClass(enrollee.getName(), course.getName(), course.getYear());
+            return true;
+        });
     }
 
     @Override
     public void dropClass(String studentName, String className, int year) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (course != null && enrollee != null) {
-            enrollee.addCourse(course);
-            course.removeStudent(enrollee);
-        }
+        this.data.metrics.time(Operation.STUDENT_DROP_CLASS, () -> drop(studentName, className, year));
+    }
+
+    @Override
+    public void dropClass(int studentId, int classId) {
+        this.data.metrics.time(Operation.STUDENT_DROP_CLASS, () -> drop(this.data.findStudent(studentId), this.data.findCourse(classId)));
+    }
+
+    boolean drop(String studentName, String className, int year) {
+        return drop(this.data.students.lookup(studentName), this.data.findCourse(className, year));
+    }
+
+    private boolean drop(Enrollee enrollee, Course course) {
+        return course != null && enrollee != null && this.data.journaled(course, journal -> {
+            if (!course.removeStudent(enrollee)) return false;
+            journal.dropClass(enrollee.getName(), course.getName(), course.getYear());
+            return true;
+        });
     }
 
     @Override
     public void submitHomework(String studentName, String homeworkName, String answerString, String className, int year) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (course != null && enrollee != null) {
-            Homework homework = course.getHomework(homeworkName);
-            if (homework != null) {
-                homework.submit(enrollee, answerString);
+        this.data.metrics.time(Operation.STUDENT_SUBMIT_HOMEWORK, () -> submit(studentName, homeworkName, answerString, className, year));
+    }
+
+    @Override
+    public void submitHomework(int studentId, int homeworkId, String answerString, int classId) {
+        this.data.metrics.time(Operation.STUDENT_SUBMIT_HOMEWORK, () -> {
+            Course course = this.data.findCourse(classId);
+            Homework homework = course == null ? null : course.getHomework(homeworkId);
+            return submit(this.data.findStudent(studentId), course, homework, answerString);
+        });
+    }
+
+    boolean submit(String studentName, String homeworkName, String answerString, String className, int year) {
+        Course course = this.data.findCourse(className, year);
+        Homework homework = course == null ? null : course.getHomework(homeworkName);
+        return submit(this.data.findStudent(studentName), course, homework, answerString);
+    }
+
+    private boolean submit(Enrollee enrollee, Course course, Homework homework, String answerString) {
+        return enrollee != null && homework != null && this.data.journaled(course, journal -> {
+            if (!homework.submit(enrollee, answerString)) return false;
+            journal.submitHomework(enrollee.getName(), homework.getName(), answerString, course.getName(), course.getYear());
+            return true;
+        });
+    }
+
+    @Override
+    public List<TranscriptEntry> getTranscript(String studentName) {
+        List<TranscriptEntry> transcript = this.data.metrics.time(Operation.STUDENT_GET_TRANSCRIPT, () -> {
+            Enrollee enrollee = this.data.students.lookup(studentName);
+            return enrollee == null ? null : transcript(enrollee, enrollee.getCourses());
+        }, Objects::nonNull);
+        return transcript == null ? Collections.emptyList() : transcript;
+    }
+
+    @Override
+    public List<TranscriptEntry> getTranscript(String studentName, int year) {
+        List<TranscriptEntry> transcript = this.data.metrics.time(Operation.STUDENT_GET_TRANSCRIPT, () -> {
+            Enrollee enrollee = this.data.students.lookup(studentName);
+            return enrollee == null ? null : transcript(enrollee, enrollee.getCourses(year));
+        }, Objects::nonNull);
+        return transcript == null ? Collections.emptyList() : transcript;
+    }
+
+    private static List<TranscriptEntry> transcript(Enrollee enrollee, Iterable<Course> courses) {
+        List<TranscriptEntry> transcript = new ArrayList<>();
+        for (Course course : courses) {
+            // The index is updated after the roster, so a racing register/drop may briefly leave it stale
+            if (!course.isEnrolled(enrollee)) continue;
+            Map<String, Integer> grades = new LinkedHashMap<>();
+            for (int ordinal = 0; ordinal < course.getHomeworkCount(); ordinal++) {
+                Homework homework = course.getHomework(ordinal);
+                int grade = homework.getGrade(enrollee);
+                if (grade != Homework.UNGRADED) grades.put(homework.getName(), grade);
             }
+            transcript.add(new TranscriptEntry(course.getName(), course.getYear(), grades));
         }
+        transcript.sort(Comparator.comparingInt(TranscriptEntry::getYear).thenComparing(TranscriptEntry::getClassName));
+        return transcript;
     }
 
     @Override
     public boolean isRegisteredFor(String studentName, String className, int year) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (course != null && enrollee != null) {
-            return course.getEnrollees().contains(enrollee);
+        return this.data.metrics.time(Operation.STUDENT_IS_REGISTERED_FOR, () -> {
+            Course course = this.data.findCourse(className, year);
+            return course != null && registered(studentName, course);
+        });
+    }
+
+    @Override
+    public boolean isRegisteredFor(int studentId, int classId) {
+        return this.data.metrics.time(Operation.STUDENT_IS_REGISTERED_FOR, () -> {
+            Enrollee enrollee = this.data.findStudent(studentId);
+            Course course = this.data.findCourse(classId);
+            return course != null && enrollee != null && course.isEnrolled(enrollee);
+        });
+    }
+
+    private boolean registered(String studentName, Course course) {
+        FilterStats filter = this.data.metrics.rosters;
+        if (!course.mightBeEnrolled(studentName)) {
+            filter.negative();
+            return false;
         }
-        return false;
+        Enrollee enrollee = this.data.students.lookup(studentName);
+        boolean registered = enrollee != null && course.isEnrolled(enrollee);
+        filter.passed(registered);
+        return registered;
+    }
+
+    @Override
+    public int getWaitlistPosition(String studentName, String className, int year) {
+        return this.data.metrics.time(Operation.STUDENT_GET_WAITLIST_POSITION,
+                () -> waitlistPosition(this.data.students.lookup(studentName), this.data.findCourse(className, year)), position -> position > 0);
+    }
+
+    @Override
+    public int getWaitlistPosition(int studentId, int classId) {
+        return this.data.metrics.time(Operation.STUDENT_GET_WAITLIST_POSITION,
+                () -> waitlistPosition(this.data.findStudent(studentId), this.data.findCourse(classId)), position -> position > 0);
+    }
+
+    private static int waitlistPosition(Enrollee enrollee, Course course) {
+        return course == null || enrollee == null ? 0 : course.getWaitlistPosition(enrollee);
     }
 
     @Override
     public boolean hasSubmitted(String studentName, String homeworkName, String className, int year) {
-        Enrollee enrollee = DataManager.findStudent(studentName);
-        Course course = DataManager.findCourse(className, year);
-        if (course != null && enrollee != null) {
-            Homework homework = course.getHomework(homeworkName);
-            if (homework != null) {
-                return homework.getSubmission(enrollee) != null;
-            }
+        return this.data.metrics.time(Operation.STUDENT_HAS_SUBMITTED, () -> submitted(studentName, homeworkName, className, year));
+    }
+
+    @Override
+    public boolean hasSubmitted(int studentId, int homeworkId, int classId) {
+        return this.data.metrics.time(Operation.STUDENT_HAS_SUBMITTED, () -> {
+            Enrollee enrollee = this.data.findStudent(studentId);
+            Course course = this.data.findCourse(classId);
+            Homework homework = course == null ? null : course.getHomework(homeworkId);
+            return enrollee != null && homework != null && homework.hasSubmitted(enrollee);
+        });
+    }
+
+    private boolean submitted(String studentName, String homeworkName, String className, int year) {
+        Course course = this.data.findCourse(className, year);
+        Homework homework = course == null ? null : course.getHomework(homeworkName);
+        if (homework == null) return false;
+        FilterStats filter = this.data.metrics.submissions;
+        if (!homework.mightHaveSubmitted(studentName)) {
+            filter.negative();
+            return false;
         }
-        return false;
+        Enrollee enrollee = this.data.students.lookup(studentName);
+        boolean submitted = enrollee != null && homework.hasSubmitted(enrollee);
+        filter.passed(submitted);
+        return submitted;
     }
 }
@@ -0,0 +1,71 @@
+package core.api.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps student names to {@link Enrollee}s with stable, dense ids.
+ * Ids are handed out in registration order starting at 0, so they can be used to index arrays.
+ *
+ * Lookups never lock; only registering a previously unknown name takes the registry's monitor.
+ */
+class StudentRegistry {
+    private final Map<String, Enrollee> byName;
+    private volatile Enrollee[] byId;
+    private volatile int size;
+
+    protected StudentRegistry() {
+        this.byName = new ConcurrentHashMap<>();
+        this.byId = new Enrollee[16];
+        this.size = 0;
+    }
+
+    /**
+     * @return The enrollee named {@code name}, or null if no such student is known
+     */
+    protected Enrollee lookup(String name) {
+        return this.byName.get(name);
+    }
+
+    /**
+     * @return The enrollee named {@code name}, registering a new one if needed
+     */
+    protected Enrollee intern(String name) {
+        Enrollee enrollee = this.byName.get(name);
+        if (enrollee != null) return enrollee;
+        synchronized (this) {
+            enrollee = this.byName.get(name);
+            if (enrollee != null) return enrollee;
+            int id = this.size;
+            Enrollee[] ids = this.byId;
+            if (id == ids.length) {
+                ids = Arrays.copyOf(ids, id * 2);
+            }
+            enrollee = new Enrollee(name, id);
+            ids[id] = enrollee;
+            this.byId = ids;
+            this.size = id + 1;
+            this.byName.put(name, enrollee);
+            return enrollee;
+        }
+    }
+
+    /**
+     * @return The enrollee with id {@code id}, or null if no such student is known
+     */
+    protected Enrollee get(int id) {
+        if (id < 0 || id >= this.size) return null;
+        return this.byId[id];
+    }
+
+    protected int size() {
+        return this.size;
+    }
+
+    protected synchronized void clear() {
+        this.byName.clear();
+        Arrays.fill(this.byId, 0, this.size, null);
+        this.size = 0;
+    }
+}
@@ -0,0 +1,129 @@
+package core.api.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only store for homework answers, kept in a memory-mapped file instead of on the Java heap.
+ * Each answer is written as a 4-byte length followed by its UTF-8 bytes, and is identified by the
+ * offset of that record. The file is mapped in fixed-size segments; a record never spans two segments.
+ *
+ * Appends are serialized on the store; reads of already returned offsets need no locking.
+ */
+class SubmissionStore {
+    /** Offset value meaning "no submission" */
+    static final long NONE = -1L;
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private final Path file;
+    private final boolean temporary;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private volatile MappedByteBuffer[] segments;
+    private long position;
+
+    protected SubmissionStore(Path file, int segmentSize, boolean temporary) throws IOException {
+        this.file = file;
+        this.temporary = temporary;
+        this.segmentSize = segmentSize;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segments = new MappedByteBuffer[0];
+        this.position = 0;
+    }
+
+    /**
+     * @return A store backed by a fresh temporary file that is deleted when the store is closed
+     */
+    protected static SubmissionStore createTemporary() {
+        try {
+            Path file = Files.createTempFile("submissions", ".dat");
+            file.toFile().deleteOnExit();
+            return new SubmissionStore(file, DEFAULT_SEGMENT_SIZE, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append {@code answer} to the store.
+     *
+     * @return Offset under which the answer can be read back
+     */
+    protected long append(String answer) {
+        byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        if (length > this.segmentSize) {
+            throw new IllegalArgumentException("Submission of " + bytes.length + " bytes exceeds segment size " + this.segmentSize);
+        }
+        long offset;
+        MappedByteBuffer segment;
+        synchronized (this) {
+            int within = (int) (this.position % this.segmentSize);
+            if (within + length > this.segmentSize) {
+                this.position += this.segmentSize - within; // skip the tail of the current segment
+            }
+            offset = this.position;
+            segment = segment((int) (offset / this.segmentSize));
+            this.position += length;
+        }
+        ByteBuffer target = segment.duplicate();
+        target.position((int) (offset % this.segmentSize));
+        target.putInt(bytes.length);
+        target.put(bytes);
+        return offset;
+    }
+
+    /**
+     * @return The answer stored at {@code offset}
+     */
+    protected String read(long offset) {
+        ByteBuffer source = this.segments[(int) (offset / this.segmentSize)].duplicate();
+        source.position((int) (offset % this.segmentSize));
+        byte[] bytes = new byte[source.getInt()];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Forget all answers. The file and its mappings are kept and overwritten by later appends.
+     */
+    protected synchronized void clear() {
+        this.position = 0;
+    }
+
+    /**
+     * Flush written answers to the underlying file and release it, deleting it if it is temporary.
+     */
+    protected synchronized void close() throws IOException {
+        for (MappedByteBuffer segment : this.segments) segment.force();
+        this.segments = new MappedByteBuffer[0];
+        this.channel.close();
+        if (this.temporary) Files.deleteIfExists(this.file);
+    }
+
+    // Caller holds the store's monitor
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer[] current = this.segments;
+        if (index < current.length) return current[index];
+        MappedByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+        try {
+            for (int i = current.length; i <= index; i++) {
+                grown[i] = this.channel.map(FileChannel.MapMode.READ_WRITE, (long) i * this.segmentSize, this.segmentSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.segments = grown;
+        return grown[index];
+    }
+}
@@ -0,0 +1,35 @@
+package core.api.impl;
+
+import core.api.ISymbolTable;
+
+/**
+ * Student ids come from the {@link StudentRegistry}, class ids from the {@link CourseRegistry}, and a homework's id
+ * is its ordinal within its course.
+ */
+public class SymbolTable implements ISymbolTable {
+
+    private final DataManager data;
+
+    public SymbolTable(DataManager data) {
+        this.data = data;
+    }
+
+    @Override
+    public int getStudentId(String studentName) {
+        return this.data.findStudent(studentName).getId();
+    }
+
+    @Override
+    public int getClassId(String className, int year) {
+        Course course = this.data.findCourse(className, year);
+        // A course is published to its term just before it gets its id, so assign it here if that has not happened yet
+        return course == null ? -1 : this.data.courseIds.register(course);
+    }
+
+    @Override
+    public int getHomeworkId(int classId, String homeworkName) {
+        Course course = this.data.findCourse(classId);
+        Homework homework = course == null ? null : course.getHomework(homeworkName);
+        return homework == null ? -1 : homework.getOrdinal();
+    }
+}
@@ -0,0 +1,72 @@
+package core.api.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All courses offered in one year.
+ *
+ * An open term keeps its courses in a concurrent map. {@link #freeze()} freezes every course, compacts the
+ * course index of every enrolled student for this year, and swaps the concurrent map for an exactly sized
+ * read-only one; from then on no course can be added to the term or changed.
+ */
+class Term {
+    private final int year;
+    private final FreezeGuard guard = new FreezeGuard();
+    private volatile Map<String, Course> courses = new ConcurrentHashMap<>();
+
+    Term(int year) {
+        this.year = year;
+    }
+
+    int getYear() {
+        return this.year;
+    }
+
+    Course get(String name) {
+        return this.courses.get(name);
+    }
+
+    Collection<Course> getCourses() {
+        return this.courses.values();
+    }
+
+    /**
+     * @return False if a course with the same name exists or the term is frozen
+     */
+    boolean add(Course course) {
+        if (!this.guard.enter()) return false;
+        try {
+            return this.courses.putIfAbsent(course.getName(), course) == null;
+        } finally {
+            this.guard.exit();
+        }
+    }
+
+    boolean isFrozen() {
+        return this.guard.isFrozen();
+    }
+
+    /**
+     * @return False if the term was already frozen
+     */
+    boolean freeze() {
+        if (!this.guard.freeze()) return false;
+        Map<String, Course> frozen = new HashMap<>(this.courses.size() * 4 / 3 + 1);
+        for (Course course : this.courses.values()) {
+            Enrollee[] enrolled;
+            // Under the course's monitor, so journaled changes to the course are recorded before the freeze
+            synchronized (course) {
+                enrolled = course.freeze();
+            }
+            if (enrolled != null) {
+                for (Enrollee enrollee : enrolled) enrollee.freezeYear(this.year);
+            }
+            frozen.put(course.getName(), course);
+        }
+        this.courses = frozen;
+        return true;
+    }
+}
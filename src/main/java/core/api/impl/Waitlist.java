@@ -0,0 +1,98 @@
+package core.api.impl;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * First-come, first-served queue of students waiting for a seat in one course.
+ *
+ * Every waiting student holds a ticket; tickets of consecutive students are consecutive numbers, so a position is
+ * the student's ticket minus the ticket at the head and can be read in O(1) without locking. Changes are
+ * serialized on the waitlist. Leaving from the middle of the queue renumbers the students behind, which is O(n)
+ * but rare compared to polling a position.
+ */
+class Waitlist {
+    private final ArrayDeque<Enrollee> queue = new ArrayDeque<>();
+    private final Map<Enrollee, Long> tickets = new ConcurrentHashMap<>();
+    private volatile long head; // ticket of the first student in the queue
+    private long next;          // ticket for the next student to join, guarded by this
+
+    /**
+     * @return 1 for the first student in the queue, 2 for the second and so on, or 0 if {@code enrollee} is not waiting
+     */
+    int position(Enrollee enrollee) {
+        Long ticket = this.tickets.get(enrollee);
+        return ticket == null ? 0 : (int) Math.max(1, ticket - this.head + 1);
+    }
+
+    boolean isEmpty() {
+        return this.tickets.isEmpty();
+    }
+
+    synchronized int size() {
+        return this.queue.size();
+    }
+
+    /**
+     * Append {@code enrollee} to the queue.
+     *
+     * @return False if they were already waiting
+     */
+    synchronized boolean add(Enrollee enrollee) {
+        if (this.tickets.containsKey(enrollee)) return false;
+        this.tickets.put(enrollee, this.next++);
+        this.queue.addLast(enrollee);
+        return true;
+    }
+
+    /**
+     * @return The first student in the queue, removed from it, or null if nobody is waiting
+     */
+    synchronized Enrollee poll() {
+        Enrollee first = this.queue.pollFirst();
+        if (first == null) return null;
+        this.tickets.remove(first);
+        this.head++;
+        return first;
+    }
+
+    /**
+     * Take {@code enrollee} out of the queue, moving everyone behind them up by one.
+     *
+     * @return False if they were not waiting
+     */
+    synchronized boolean remove(Enrollee enrollee) {
+        Long ticket = this.tickets.remove(enrollee);
+        if (ticket == null) return false;
+        boolean behind = false;
+        for (Iterator<Enrollee> it = this.queue.iterator(); it.hasNext(); ) {
+            Enrollee waiting = it.next();
+            if (behind) {
+                this.tickets.put(waiting, this.tickets.get(waiting) - 1);
+            } else if (waiting.equals(enrollee)) {
+                it.remove();
+                behind = true;
+            }
+        }
+        this.next--;
+        return true;
+    }
+
+    /**
+     * @return Ids of the waiting students, first in line first
+     */
+    synchronized int[] getIds() {
+        int[] ids = new int[this.queue.size()];
+        int i = 0;
+        for (Enrollee waiting : this.queue) ids[i++] = waiting.getId();
+        return ids;
+    }
+
+    synchronized void clear() {
+        this.queue.clear();
+        this.tickets.clear();
+        this.head = this.next;
+    }
+}
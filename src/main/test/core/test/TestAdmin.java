@@ -1,5 +1,6 @@
 package core.test;
 
+import core.api.impl.DataManager;
 import core.api.IAdmin;
 import core.api.impl.Admin;
 import core.api.IStudent;
@@ -8,18 +9,28 @@ import core.api.impl.Student;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class TestAdmin {
 	
+	private DataManager data;
 	private IAdmin admin;
 	private IStudent student;
 
     @Before
     public void setup() {
-        this.admin = new Admin();
-        this.student = new Student();
+        this.data = new DataManager();
+        this.admin = new Admin(this.data);
+        this.student = new Student(this.data);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        this.data.close();
     }
     
     /**
@@ -102,6 +113,16 @@ public class TestAdmin {
     	assertTrue(this.admin.getClassInstructor("Test", 2017).equals("Instructor"));
     }
     
+    // 4) A rejected duplicate does not count against its instructor's two classes
+    @Test
+    public void testMakeClassPair2() {
+    	this.admin.createClass("Test", 2017, "Instructor", 15);
+    	this.admin.createClass("Test", 2017, "Instructor_1", 15);	// Duplicate className/year pair
+    	this.admin.createClass("Test_1", 2017, "Instructor_1", 15);
+    	this.admin.createClass("Test_2", 2017, "Instructor_1", 15);
+    	assertTrue(this.admin.classExists("Test_1", 2017) && this.admin.classExists("Test_2", 2017));
+    }
+    
     /**
      * changeCapacity() tests:
      * 1) New capacity >= number of enrollees
@@ -140,4 +161,39 @@ public class TestAdmin {
     	assertTrue(this.admin.getClassCapacity("Test", 2017) >= numEnrollees);
     }
  
+    
+    /**
+     * Catalog lookup tests:
+     * 1) Lookup resolves the exact className/year pair in a large catalog
+     */
+    
+    // 1) Lookup resolves the exact className/year pair in a large catalog
+    @Test
+    public void testClassExistsLargeCatalog() {
+    	for (int i = 0; i < 20000; i++) {
+    		this.admin.createClass("Test_" + i, 2017 + (i % 2), "Instructor_" + i, 15);
+    	}
+    	assertTrue(this.admin.classExists("Test_19999", 2018));
+    	assertFalse(this.admin.classExists("Test_19999", 2017));	// Same name, other year
+    	assertTrue(this.admin.getClassInstructor("Test_42", 2017).equals("Instructor_42"));
+    }
+ 
+    
+    /**
+     * Store isolation tests:
+     * 1) Classes created in one DataManager are invisible to another
+     */
+    
+    // 1) Classes created in one DataManager are invisible to another
+    @Test
+    public void testSeparateStores() throws IOException {
+    	try (DataManager other = new DataManager()) {
+    		IAdmin otherAdmin = new Admin(other);
+    		this.admin.createClass("Test", 2017, "Instructor", 15);
+    		assertFalse(otherAdmin.classExists("Test", 2017));
+    		otherAdmin.createClass("Test", 2017, "Instructor_2", 5);
+    		assertTrue(this.admin.getClassInstructor("Test", 2017).equals("Instructor"));
+    	}
+    }
+ 
 }
@@ -0,0 +1,180 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IAsyncInstructor;
+import core.api.impl.AsyncInstructor;
+import core.api.IAsyncStudent;
+import core.api.impl.AsyncStudent;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IStudent;
+import core.api.impl.Student;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestAsync {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IStudent student;
+	private IInstructor instructor;
+	private IAsyncStudent asyncStudent;
+	private IAsyncInstructor asyncInstructor;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.student = new Student(this.data);
+		this.instructor = new Instructor(this.data);
+		this.asyncStudent = new AsyncStudent(this.data);
+		this.asyncInstructor = new AsyncInstructor(this.data);
+		
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	/**
+	 * IAsyncStudent/IAsyncInstructor tests:
+	 * 1) Each future completes with whether the change took effect
+	 * 2) Changes queued by one thread are applied in order
+	 * 3) A registration rush from many threads fills exactly the capacity and queues everyone else
+	 * 4) Closing the store applies what is queued and rejects later changes
+	 * 5) Grades go through the same rules as IInstructor.assignGrade
+	 */
+	
+	// 1) Each future completes with whether the change took effect
+	@Test
+	public void testAsyncResults() throws Exception {
+		assertTrue(this.asyncStudent.registerForClass("Student", "Test", 2017).get());
+		assertFalse(this.asyncStudent.registerForClass("Student", "Test", 2017).get());
+		assertFalse(this.asyncStudent.registerForClass("Student", "Test_2", 2017).get());
+		assertTrue(this.asyncStudent.submitHomework("Student", "HW", "Solution", "Test", 2017).get());
+		assertFalse(this.asyncStudent.submitHomework("Student", "HW_2", "Solution", "Test", 2017).get());
+		assertTrue(this.asyncInstructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 95).get());
+		assertTrue(this.asyncStudent.dropClass("Student", "Test", 2017).get());
+		assertFalse(this.asyncStudent.dropClass("Student", "Test", 2017).get());
+		
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertEquals("Solution", this.instructor.getSubmission("Test", 2017, "HW", "Student"));
+		assertEquals(Integer.valueOf(95), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	// 2) Changes queued by one thread are applied in order
+	@Test
+	public void testAsyncOrder() throws Exception {
+		List<CompletableFuture<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			results.add(this.asyncStudent.registerForClass("Student", "Test", 2017));
+			results.add(this.asyncStudent.submitHomework("Student", "HW", "Solution_" + i, "Test", 2017));
+			results.add(this.asyncInstructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", i % 101));
+			results.add(this.asyncStudent.dropClass("Student", "Test", 2017));
+		}
+		results.add(this.asyncStudent.registerForClass("Student", "Test", 2017));
+		for (CompletableFuture<Boolean> result : results) {
+			assertTrue(result.get());
+		}
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertEquals("Solution_999", this.instructor.getSubmission("Test", 2017, "HW", "Student"));
+		assertEquals(Integer.valueOf(999 % 101), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	// 3) A registration rush from many threads fills exactly the capacity and queues everyone else
+	@Test
+	public void testAsyncRush() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<CompletableFuture<Boolean>>>> queued = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				queued.add(pool.submit(() -> {
+					List<CompletableFuture<Boolean>> results = new ArrayList<>();
+					for (int s = 0; s < 100; s++) {
+						results.add(this.asyncStudent.registerForClass("Student_" + thread + "_" + s, "Test", 2017));
+					}
+					return results;
+				}));
+			}
+			for (Future<List<CompletableFuture<Boolean>>> f : queued) {
+				for (CompletableFuture<Boolean> result : f.get()) {
+					assertTrue(result.get());	// Registered or waitlisted
+				}
+			}
+			int registered = 0;
+			boolean[] positions = new boolean[8 * 100 - 15 + 1];
+			for (int t = 0; t < 8; t++) {
+				for (int s = 0; s < 100; s++) {
+					if (this.student.isRegisteredFor("Student_" + t + "_" + s, "Test", 2017)) {
+						registered++;
+					} else {
+						int position = this.student.getWaitlistPosition("Student_" + t + "_" + s, "Test", 2017);
+						assertFalse(positions[position]);
+						positions[position] = true;
+					}
+				}
+			}
+			assertEquals(15, registered);
+			assertFalse(positions[0]);
+		} finally {
+			pool.shutdownNow();
+			pool.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+	
+	// 4) Closing the store applies what is queued and rejects later changes
+	@Test
+	public void testAsyncClose() throws Exception {
+		List<CompletableFuture<Boolean>> results = new ArrayList<>();
+		for (int s = 0; s < 15; s++) {
+			results.add(this.asyncStudent.registerForClass("Student_" + s, "Test", 2017));
+		}
+		this.data.close();
+		for (CompletableFuture<Boolean> result : results) {
+			assertTrue(result.isDone());
+			assertTrue(result.get());
+		}
+		
+		CompletableFuture<Boolean> late = this.asyncStudent.registerForClass("Student_15", "Test", 2017);
+		try {
+			late.get();
+			fail("Expected the change to be rejected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+	}
+	
+	// 5) Grades go through the same rules as IInstructor.assignGrade
+	@Test
+	public void testAsyncGradeRules() throws Exception {
+		assertTrue(this.asyncStudent.registerForClass("Student", "Test", 2017).get());
+		assertFalse(this.asyncInstructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 90).get());	// Not submitted
+		assertTrue(this.asyncStudent.submitHomework("Student", "HW", "Solution", "Test", 2017).get());
+		assertFalse(this.asyncInstructor.assignGrade("Instructor_1", "Test", 2017, "HW", "Student", 90).get());	// Not the instructor
+		assertFalse(this.asyncInstructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", -1).get());
+		assertFalse(this.asyncInstructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 101).get());
+		
+		assertNull(this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+}
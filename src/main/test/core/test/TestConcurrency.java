@@ -0,0 +1,258 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.GradeStatistics;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.ICourseManager;
+import core.api.impl.CourseManager;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IStudent;
+import core.api.impl.Student;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Stress tests that call all four APIs from many threads at once and check that no update is lost.
+ */
+public class TestConcurrency {
+	
+	private static final int THREADS = 8;
+	private static final int COURSES = 16;
+	private static final int STUDENTS_PER_THREAD = 200;
+	
+	private DataManager data;
+	private IAdmin admin;
+	private ICourseManager courseManager;
+	private IInstructor instructor;
+	private IStudent student;
+	private ExecutorService pool;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		Admin admin = new Admin(this.data);
+		this.admin = admin;
+		this.courseManager = new CourseManager(admin);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+		this.pool = Executors.newFixedThreadPool(THREADS);
+	}
+	
+	@After
+	public void teardown() throws InterruptedException, IOException {
+		this.pool.shutdownNow();
+		this.pool.awaitTermination(10, TimeUnit.SECONDS);
+		this.data.close();
+	}
+	
+	private void runAll(List<Callable<Void>> tasks) throws Exception {
+		for (Future<Void> f : this.pool.invokeAll(tasks)) {
+			f.get();	// Rethrows anything a worker threw
+		}
+	}
+	
+	// Classes created in parallel through IAdmin and ICourseManager are all visible afterwards
+	@Test
+	public void testConcurrentCreateClass() throws Exception {
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			tasks.add(() -> {
+				for (int c = 0; c < COURSES; c++) {
+					this.admin.createClass("Admin_" + thread + "_" + c, 2017, "Admin_Instructor_" + thread + "_" + c, 500);
+					this.courseManager.createClass("Manager_" + thread + "_" + c, 2017, "Manager_Instructor_" + thread + "_" + c, 500);
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		for (int t = 0; t < THREADS; t++) {
+			for (int c = 0; c < COURSES; c++) {
+				assertTrue(this.admin.classExists("Admin_" + t + "_" + c, 2017));
+				assertTrue(this.courseManager.classExists("Manager_" + t + "_" + c, 2017));
+			}
+		}
+	}
+	
+	// Registration, homework submission and grading from many threads lose no updates
+	@Test
+	public void testConcurrentStudentsAndInstructors() throws Exception {
+		for (int c = 0; c < COURSES; c++) {
+			this.admin.createClass("Test_" + c, 2017, "Instructor_" + c, THREADS * STUDENTS_PER_THREAD);
+			this.instructor.addHomework("Instructor_" + c, "Test_" + c, 2017, "HW");
+		}
+		
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			tasks.add(() -> {
+				for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+					String name = "Student_" + thread + "_" + s;
+					String course = "Test_" + (s % COURSES);
+					this.student.registerForClass(name, course, 2017);
+					this.student.submitHomework(name, "HW", "Solution", course, 2017);
+					this.instructor.assignGrade("Instructor_" + (s % COURSES), course, 2017, "HW", name, s % 101);
+					this.admin.getClassCapacity(course, 2017);
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		for (int t = 0; t < THREADS; t++) {
+			for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+				String name = "Student_" + t + "_" + s;
+				String course = "Test_" + (s % COURSES);
+				assertTrue(this.student.isRegisteredFor(name, course, 2017));
+				assertTrue(this.student.hasSubmitted(name, "HW", course, 2017));
+				assertEquals(Integer.valueOf(s % 101), this.instructor.getGrade(course, 2017, "HW", name));
+			}
+		}
+	}
+	
+	// Concurrent register/drop cycles on one course leave exactly the final registrations
+	@Test
+	public void testConcurrentRegisterDrop() throws Exception {
+		this.admin.createClass("Test", 2017, "Instructor", THREADS * STUDENTS_PER_THREAD);
+		
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			tasks.add(() -> {
+				for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+					String name = "Student_" + thread + "_" + s;
+					this.student.registerForClass(name, "Test", 2017);
+					if (s % 2 == 0) this.student.dropClass(name, "Test", 2017);
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		for (int t = 0; t < THREADS; t++) {
+			for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+				assertEquals(s % 2 != 0, this.student.isRegisteredFor("Student_" + t + "_" + s, "Test", 2017));
+			}
+		}
+	}
+	
+	// A registration rush on a small course fills exactly its capacity, and capacity cannot drop below enrollment
+	@Test
+	public void testConcurrentRegistrationRush() throws Exception {
+		final int capacity = 50;
+		this.admin.createClass("Test", 2017, "Instructor", capacity);
+		
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			tasks.add(() -> {
+				for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+					this.student.registerForClass("Student_" + thread + "_" + s, "Test", 2017);
+					this.admin.getClassCapacity("Test", 2017);
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		int registered = 0;
+		for (int t = 0; t < THREADS; t++) {
+			for (int s = 0; s < STUDENTS_PER_THREAD; s++) {
+				if (this.student.isRegisteredFor("Student_" + t + "_" + s, "Test", 2017)) registered++;
+			}
+		}
+		assertEquals(capacity, registered);
+		
+		this.admin.changeCapacity("Test", 2017, capacity - 1);	// Below current enrollment
+		assertEquals(capacity, this.admin.getClassCapacity("Test", 2017));
+	}
+	
+	// An instructor racing to create many classes in one year ends up with exactly two
+	@Test
+	public void testConcurrentInstructorLimit() throws Exception {
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			tasks.add(() -> {
+				for (int c = 0; c < COURSES; c++) {
+					this.admin.createClass("Busy_" + thread + "_" + c, 2017, "Busy_Instructor", 10);
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		int busy = 0;
+		for (int t = 0; t < THREADS; t++) {
+			for (int c = 0; c < COURSES; c++) {
+				if (this.admin.classExists("Busy_" + t + "_" + c, 2017)) busy++;
+			}
+		}
+		assertEquals(2, busy);
+	}
+	
+	// Readers running alongside batch grade uploads only ever see whole batches
+	@Test
+	public void testConcurrentGradeBatches() throws Exception {
+		final int students = 20;
+		final int batches = 500;
+		this.admin.createClass("Test", 2017, "Instructor", students);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		Map<String, Integer> grades = new HashMap<>();
+		for (int s = 0; s < students; s++) {
+			this.student.registerForClass("Student_" + s, "Test", 2017);
+			this.student.submitHomework("Student_" + s, "HW", "Solution", "Test", 2017);
+			grades.put("Student_" + s, 0);
+		}
+		assertTrue(this.instructor.assignGrades("Instructor", "Test", 2017, "HW", grades));
+		
+		AtomicBoolean done = new AtomicBoolean();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		tasks.add(() -> {
+			try {
+				for (int b = 1; b <= batches; b++) {
+					for (String name : grades.keySet()) grades.put(name, b % 101);
+					assertTrue(this.instructor.assignGrades("Instructor", "Test", 2017, "HW", grades));
+				}
+			} finally {
+				done.set(true);
+			}
+			return null;
+		});
+		for (int t = 1; t < THREADS; t++) {
+			tasks.add(() -> {
+				while (!done.get()) {
+					GradeStatistics homework = this.instructor.getGradeStatistics("Test", 2017, "HW");
+					assertEquals(students, homework.getCount());
+					assertEquals(homework.getMin(), homework.getMax());
+					GradeStatistics course = this.instructor.getCourseGradeStatistics("Test", 2017);
+					assertEquals(students, course.getCount());
+					assertEquals(course.getMin(), course.getMax());
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+		
+		assertEquals(Integer.valueOf(batches % 101), this.instructor.getGrade("Test", 2017, "HW", "Student_0"));
+	}
+}
@@ -2,6 +2,9 @@ package core.test;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.AdditionalMatchers;
@@ -10,6 +13,7 @@ import org.mockito.Spy;
 
 import core.api.ICourseManager;
 import core.api.impl.Admin;
+import core.api.impl.DataManager;
 import core.api.impl.CourseManager;
 
 /**
@@ -20,17 +24,24 @@ import core.api.impl.CourseManager;
  */
 
 public class TestCourseManager {
+	private DataManager data;
 	@Spy
 	private Admin admin;
 	private ICourseManager courseManager;
 	
 	@Before
 	public void setup() {
-		this.admin = Mockito.spy(new Admin());
+		this.data = new DataManager();
+		this.admin = Mockito.spy(new Admin(this.data));
 		this.courseManager = new CourseManager(this.admin);
 		setupMocking();
 	}
 	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
 	/**
 	 * Shows some initial set-up for the mocking of Admin.
 	 * This includes fixing a known bug (year in past is not correctly checked) in the Admin class by Mocking its behavior.
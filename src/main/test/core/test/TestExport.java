@@ -0,0 +1,177 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.GradebookFormat;
+import core.api.IGradebookExporter;
+import core.api.impl.GradebookExporter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestExport {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IInstructor instructor;
+	private IStudent student;
+	private IGradebookExporter exporter;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+		this.exporter = new GradebookExporter(this.data);
+		
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Answer", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 90);
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	private String csv(String className, int year) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		if (className == null) this.exporter.exportYear(year, GradebookFormat.CSV, Channels.newChannel(bytes));
+		else this.exporter.exportClass(className, year, GradebookFormat.CSV, Channels.newChannel(bytes));
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * IGradebookExporter tests:
+	 * 1) A class's CSV has one row per student and homework, with grades and submission flags
+	 * 2) Names containing commas or quotes are quoted in CSV
+	 * 3) The columnar format holds the same rows, one column per homework
+	 * 4) A year export covers every class of the year in name order; an unknown class has no rows
+	 * 5) Exports far larger than the buffer are written through it in buffer-sized pieces
+	 */
+	
+	// 1) A class's CSV has one row per student and homework, with grades and submission flags
+	@Test
+	public void testCsv() throws IOException {
+		assertEquals("class,year,student,homework,grade,submitted\r\n"
+				+ "Test,2017,Student,HW,90,true\r\n"
+				+ "Test,2017,Student,HW_2,,false\r\n"
+				+ "Test,2017,Student_2,HW,,false\r\n"
+				+ "Test,2017,Student_2,HW_2,,false\r\n", csv("Test", 2017));
+	}
+	
+	// 2) Names containing commas or quotes are quoted in CSV
+	@Test
+	public void testCsvQuoting() throws IOException {
+		this.admin.createClass("Math, \"Honors\"", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Math, \"Honors\"", 2017, "HW");
+		this.student.registerForClass("Student", "Math, \"Honors\"", 2017);
+		assertEquals("class,year,student,homework,grade,submitted\r\n"
+				+ "\"Math, \"\"Honors\"\"\",2017,Student,HW,,false\r\n", csv("Math, \"Honors\"", 2017));
+	}
+	
+	// 3) The columnar format holds the same rows, one column per homework
+	@Test
+	public void testColumnar() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		long rows = this.exporter.exportClass("Test", 2017, GradebookFormat.COLUMNAR, Channels.newChannel(bytes));
+		assertEquals(4, rows);
+		
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(0x48574742, in.readInt());
+		assertEquals(1, in.readInt());
+		assertEquals(1, in.readByte());
+		assertEquals("Test", readString(in));
+		assertEquals(2017, in.readInt());
+		assertEquals(2, in.readInt());
+		assertEquals("Student", readString(in));
+		assertEquals("Student_2", readString(in));
+		assertEquals(2, in.readInt());
+		assertEquals("HW", readString(in));
+		assertEquals("HW_2", readString(in));
+		assertEquals(90, in.readInt());						// HW
+		assertEquals(Integer.MIN_VALUE, in.readInt());
+		assertEquals(0x01, in.readByte());
+		assertEquals(Integer.MIN_VALUE, in.readInt());		// HW_2
+		assertEquals(Integer.MIN_VALUE, in.readInt());
+		assertEquals(0x00, in.readByte());
+		assertEquals(0, in.readByte());
+		assertEquals(-1, in.read());
+	}
+	
+	// 4) A year export covers every class of the year in name order; an unknown class has no rows
+	@Test
+	public void testYear() throws IOException {
+		this.admin.createClass("Art", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Art", 2017, "Sketch");
+		this.student.registerForClass("Student", "Art", 2017);
+		this.admin.createClass("Test", 2018, "Instructor", 15);
+		
+		String year = csv(null, 2017);
+		assertTrue(year.startsWith("class,year,student,homework,grade,submitted\r\nArt,2017,Student,Sketch,,false\r\nTest,2017,"));
+		assertEquals(6, year.split("\r\n").length);
+		assertEquals("class,year,student,homework,grade,submitted\r\n", csv("Missing", 2017));
+		assertEquals("class,year,student,homework,grade,submitted\r\n", csv(null, 2019));
+	}
+	
+	// 5) Exports far larger than the buffer are written through it in buffer-sized pieces
+	@Test
+	public void testBoundedBuffer() throws IOException {
+		this.admin.changeCapacity("Test", 2017, 1002);
+		for (int i = 0; i < 1000; i++) {
+			this.student.registerForClass("Student" + i, "Test", 2017);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		WritableByteChannel sink = Channels.newChannel(bytes);
+		int[] largest = new int[1];
+		WritableByteChannel recording = new WritableByteChannel() {
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				largest[0] = Math.max(largest[0], src.remaining());
+				return sink.write(src);
+			}
+			
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+			
+			@Override
+			public void close() {
+			}
+		};
+		
+		long rows = new GradebookExporter(this.data, 256).exportClass("Test", 2017, GradebookFormat.CSV, recording);
+		assertEquals(2004, rows);
+		assertTrue(largest[0] <= 256);
+		assertEquals(2005, new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\r\n").length);
+	}
+}
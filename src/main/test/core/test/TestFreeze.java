@@ -0,0 +1,125 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IRegistrar;
+import core.api.impl.Registrar;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.RegistrationResult;
+import core.api.TranscriptEntry;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFreeze {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IInstructor instructor;
+	private IStudent student;
+	private IRegistrar registrar;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+		this.registrar = new Registrar(this.data);
+		
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		for (int i = 0; i < 10; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+			this.student.submitHomework("Student_" + i, "HW", "Solution_" + i, "Test", 2017);
+			this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student_" + i, 90 + i);
+		}
+		this.admin.createClass("Test", 2018, "Instructor", 15);
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	/**
+	 * freezeYear() tests:
+	 * 1) Everything recorded before freezing can still be read
+	 * 2) No class of a frozen year can be created or changed
+	 * 3) Other years stay open
+	 */
+	
+	// 1) Everything recorded before freezing can still be read
+	@Test
+	public void testFreezeReads() {
+		this.admin.freezeYear(2017);
+		assertTrue(this.admin.isFrozen(2017));
+		
+		assertTrue(this.admin.classExists("Test", 2017));
+		assertEquals(15, this.admin.getClassCapacity("Test", 2017));
+		assertEquals("Instructor", this.admin.getClassInstructor("Test", 2017));
+		assertTrue(this.instructor.homeworkExists("Test", 2017, "HW"));
+		for (int i = 0; i < 10; i++) {
+			assertTrue(this.student.isRegisteredFor("Student_" + i, "Test", 2017));
+			assertTrue(this.student.hasSubmitted("Student_" + i, "HW", "Test", 2017));
+			assertEquals(Integer.valueOf(90 + i), this.instructor.getGrade("Test", 2017, "HW", "Student_" + i));
+			assertEquals("Solution_" + i, this.instructor.getSubmission("Test", 2017, "HW", "Student_" + i));
+		}
+		assertFalse(this.student.isRegisteredFor("Student_10", "Test", 2017));
+		assertEquals(10, this.instructor.getGradeStatistics("Test", 2017, "HW").getCount());
+		
+		List<TranscriptEntry> transcript = this.student.getTranscript("Student_3", 2017);
+		assertEquals(1, transcript.size());
+		assertEquals(Integer.valueOf(93), transcript.get(0).getGrade("HW"));
+	}
+	
+	// 2) No class of a frozen year can be created or changed
+	@Test
+	public void testFreezeWrites() {
+		this.admin.freezeYear(2017);
+		
+		this.admin.createClass("Test_2", 2017, "Instructor_2", 15);
+		assertFalse(this.admin.classExists("Test_2", 2017));
+		this.admin.changeCapacity("Test", 2017, 20);
+		assertEquals(15, this.admin.getClassCapacity("Test", 2017));
+		
+		this.student.registerForClass("Student_10", "Test", 2017);
+		assertFalse(this.student.isRegisteredFor("Student_10", "Test", 2017));
+		this.student.dropClass("Student_0", "Test", 2017);
+		assertTrue(this.student.isRegisteredFor("Student_0", "Test", 2017));
+		this.student.submitHomework("Student_0", "HW", "Late", "Test", 2017);
+		assertEquals("Solution_0", this.instructor.getSubmission("Test", 2017, "HW", "Student_0"));
+		
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+		assertFalse(this.instructor.homeworkExists("Test", 2017, "HW_2"));
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student_0", 10);
+		assertEquals(Integer.valueOf(90), this.instructor.getGrade("Test", 2017, "HW", "Student_0"));
+		
+		RegistrationResult[] results = this.registrar.registerForClass(new String[] {"Student_0", "Student_10"}, "Test", 2017);
+		assertEquals(RegistrationResult.ALREADY_REGISTERED, results[0]);
+		assertEquals(RegistrationResult.CLASS_CLOSED, results[1]);
+	}
+	
+	// 3) Other years stay open
+	@Test
+	public void testFreezeOtherYears() {
+		this.admin.freezeYear(2017);
+		assertFalse(this.admin.isFrozen(2018));
+		
+		this.student.registerForClass("Student_0", "Test", 2018);
+		assertTrue(this.student.isRegisteredFor("Student_0", "Test", 2018));
+		this.admin.createClass("Test_2", 2018, "Instructor_2", 15);
+		assertTrue(this.admin.classExists("Test_2", 2018));
+		assertEquals(2, this.student.getTranscript("Student_0").size());
+	}
+}
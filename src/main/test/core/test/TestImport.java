@@ -0,0 +1,150 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.IImporter;
+import core.api.impl.Importer;
+import core.api.ImportReport;
+import core.api.RejectionReason;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestImport {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IStudent student;
+	private IImporter importer;
+	private Path file;
+	
+	@Before
+	public void setup() throws IOException {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.student = new Student(this.data);
+		this.importer = new Importer(this.data);
+		this.file = Files.createTempFile("import", ".csv");
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+		Files.deleteIfExists(this.file);
+	}
+	
+	private Path write(String content) throws IOException {
+		Files.write(this.file, content.getBytes(StandardCharsets.UTF_8));
+		return this.file;
+	}
+	
+	/**
+	 * IImporter tests:
+	 * 1) Catalog rows create classes; rows breaking a rule are reported by line and skipped
+	 * 2) Roster rows register students, and full classes put them on the waitlist
+	 * 3) Malformed rows are reported without stopping the load, and quoted fields are unquoted
+	 * 4) Files split into many chunks are applied completely and in file order
+	 */
+	
+	// 1) Catalog rows create classes; rows breaking a rule are reported by line and skipped
+	@Test
+	public void testCatalog() throws IOException {
+		ImportReport report = this.importer.importCatalog(write("class,year,instructor,capacity\r\n"
+				+ "Test,2017,Instructor,15\r\n"
+				+ "Old,2016,Instructor,15\r\n"			// Past year
+				+ "Empty,2017,Instructor,0\r\n"			// Capacity == 0
+				+ "Test_2,2017,Instructor,15\r\n"
+				+ "Test_3,2017,Instructor,15\r\n"		// Instructor teaches two classes already
+				+ "Test,2017,Instructor_2,15\r\n"		// Duplicate
+				+ "\r\n"
+				+ "Test,2018,Instructor,15\r\n"));
+		
+		assertEquals(7, report.getRows());
+		assertEquals(3, report.getApplied());
+		assertEquals(4, report.getRejections().size());
+		assertEquals(3, report.getRejections().get(0).getLine());
+		assertEquals(RejectionReason.PAST_YEAR, report.getRejections().get(0).getReason());
+		assertEquals(RejectionReason.INVALID_CAPACITY, report.getRejections().get(1).getReason());
+		assertEquals(RejectionReason.INSTRUCTOR_OVERLOADED, report.getRejections().get(2).getReason());
+		assertEquals(RejectionReason.DUPLICATE_CLASS, report.getRejections().get(3).getReason());
+		assertEquals(7, report.getRejections().get(3).getLine());
+		assertTrue(this.admin.classExists("Test", 2018));
+		assertFalse(this.admin.classExists("Old", 2016));
+		assertEquals("Instructor", this.admin.getClassInstructor("Test", 2017));
+	}
+	
+	// 2) Roster rows register students, and full classes put them on the waitlist
+	@Test
+	public void testRoster() throws IOException {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.student.registerForClass("Student", "Test", 2017);
+		ImportReport report = this.importer.importRoster(write("Student_2,Test,2017\n"
+				+ "Student,Test,2017\n"
+				+ "Student_3,Missing,2017\n"));
+		
+		assertEquals(3, report.getRows());
+		assertEquals(1, report.getApplied());
+		assertEquals(2, report.getRejections().size());
+		assertEquals(RejectionReason.ALREADY_REGISTERED, report.getRejections().get(0).getReason());
+		assertEquals(2, report.getRejections().get(0).getLine());
+		assertEquals(RejectionReason.NO_SUCH_CLASS, report.getRejections().get(1).getReason());
+		assertEquals(1, this.student.getWaitlistPosition("Student_2", "Test", 2017));
+	}
+	
+	// 3) Malformed rows are reported without stopping the load, and quoted fields are unquoted
+	@Test
+	public void testMalformed() throws IOException {
+		ImportReport report = this.importer.importCatalog(write("\"Math, \"\"Honors\"\"\",2017,Instructor,15\n"
+				+ "Test,2017,Instructor\n"
+				+ "Test,next year,Instructor,15\n"
+				+ "\"Test,2017,Instructor,15\n"
+				+ "Test,2017,Instructor,15"));
+		
+		assertEquals(2, report.getApplied());
+		assertEquals(3, report.getRejections().size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i + 2, report.getRejections().get(i).getLine());
+			assertEquals(RejectionReason.MALFORMED, report.getRejections().get(i).getReason());
+		}
+		assertTrue(this.admin.classExists("Math, \"Honors\"", 2017));
+		assertTrue(this.admin.classExists("Test", 2017));
+	}
+	
+	// 4) Files split into many chunks are applied completely and in file order
+	@Test
+	public void testChunks() throws IOException {
+		StringBuilder catalog = new StringBuilder("class,year,instructor,capacity\n");
+		for (int i = 0; i < 1000; i++) {
+			catalog.append("Class_").append(i).append(",2017,Instructor_").append(i / 2).append(",10\n");
+		}
+		IImporter chunked = new Importer(this.data, 100, 4);
+		ImportReport report = chunked.importCatalog(write(catalog.toString()));
+		assertEquals(1000, report.getApplied());
+		
+		StringBuilder roster = new StringBuilder("student,class,year\n");
+		for (int i = 0; i < 20; i++) {
+			for (int c = 0; c < 100; c++) {
+				roster.append("Student_").append(i).append(",Class_").append(c).append(",2017\n");
+			}
+		}
+		report = chunked.importRoster(write(roster.toString()));
+		assertEquals(2000, report.getRows());
+		assertEquals(2000, report.getApplied());
+		for (int c = 0; c < 100; c++) {
+			assertTrue(this.student.isRegisteredFor("Student_9", "Class_" + c, 2017));
+			assertEquals(1, this.student.getWaitlistPosition("Student_10", "Class_" + c, 2017));		// Rows after the tenth wait, in file order
+			assertEquals(10, this.student.getWaitlistPosition("Student_19", "Class_" + c, 2017));
+		}
+	}
+}
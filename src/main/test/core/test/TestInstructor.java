@@ -1,5 +1,7 @@
 package core.test;
 
+import core.api.impl.DataManager;
+import core.api.GradeStatistics;
 import core.api.IAdmin;
 import core.api.impl.Admin;
 import core.api.IInstructor;
@@ -9,20 +11,32 @@ import core.api.impl.Student;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class TestInstructor {
 	
+	private DataManager data;
 	private IAdmin admin;
 	private IInstructor instructor;
 	private IStudent student;
 	
 	@Before
 	public void setup() {
-		this.admin = new Admin();
-		this.instructor = new Instructor();
-		this.student = new Student();
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
 	}
 	
 	/**
@@ -180,4 +194,194 @@ public class TestInstructor {
 		
 		assertNull(this.instructor.getGrade("Test", 2017, "HW", "Student"));
 	}
+	
+	/**
+	 * Homework index tests:
+	 * 1) Adding a homework with an existing name keeps the original homework
+	 */
+	
+	// 1) Adding a homework with an existing name keeps the original homework
+	@Test
+	public void testAddHomeworkDuplicate() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_1");
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 90);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");		// Duplicate homework name
+		
+		assertTrue(this.instructor.homeworkExists("Test", 2017, "HW_1"));
+		assertEquals(Integer.valueOf(90), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	/**
+	 * assignGrades() tests:
+	 * 1) A valid batch grades every student
+	 * 2) An invalid entry rejects the whole batch
+	 * 3) Instructor has been assigned to this class
+	 */
+	
+	// 1) A valid batch grades every student
+	@Test
+	public void testAssignGradesBatch() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		Map<String, Integer> grades = new HashMap<>();
+		for (int i = 0; i < 10; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+			this.student.submitHomework("Student_" + i, "HW", "Solution", "Test", 2017);
+			grades.put("Student_" + i, 90 + i);
+		}
+		
+		assertTrue(this.instructor.assignGrades("Instructor", "Test", 2017, "HW", grades));
+		assertEquals(Integer.valueOf(99), this.instructor.getGrade("Test", 2017, "HW", "Student_9"));
+	}
+	
+	// 2) An invalid entry rejects the whole batch
+	@Test
+	public void testAssignGradesBatchInvalid() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		this.student.submitHomework("Student_2", "HW", "Solution", "Test", 2017);
+		this.student.registerForClass("Student_3", "Test", 2017);		// Doesn't submit HW
+		
+		Map<String, Integer> grades = new HashMap<>();
+		grades.put("Student", 90);
+		grades.put("Student_2", 101);									// Grade > 100
+		assertFalse(this.instructor.assignGrades("Instructor", "Test", 2017, "HW", grades));
+		
+		grades.put("Student_2", 80);
+		grades.put("Student_3", 70);									// Hasn't submitted
+		assertFalse(this.instructor.assignGrades("Instructor", "Test", 2017, "HW", grades));
+		assertNull(this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	// 3) Instructor has been assigned to this class
+	@Test
+	public void testAssignGradesBatchInstructor() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		
+		Map<String, Integer> grades = new HashMap<>();
+		grades.put("Student", 90);
+		assertFalse(this.instructor.assignGrades("Instructor_1", "Test", 2017, "HW", grades));	// Not assigned to class
+		assertNull(this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	/**
+	 * getSubmission() tests:
+	 * 1) The latest answer is read back unchanged
+	 */
+	
+	// 1) The latest answer is read back unchanged
+	@Test
+	public void testGetSubmission() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		assertNull(this.instructor.getSubmission("Test", 2017, "HW", "Student"));
+		
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "L\u00f6sung \u2713", "Test", 2017);	// Resubmission
+		assertEquals("L\u00f6sung \u2713", this.instructor.getSubmission("Test", 2017, "HW", "Student"));
+	}
+	
+	/**
+	 * getGradeStatistics() tests:
+	 * 1) Count, mean, min, max and percentiles follow the assigned grades
+	 * 2) Re-grading a student replaces the old grade
+	 * 3) Course statistics cover every homework
+	 * 4) Unknown class or homework gives null
+	 * 5) A grade equal to the ungraded marker is rejected and leaves the statistics alone
+	 */
+	
+	// 1) Count, mean, min, max and percentiles follow the assigned grades
+	@Test
+	public void testGradeStatistics() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		int[] grades = {70, 90, 80, 100, 60};
+		for (int i = 0; i < grades.length; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+			this.student.submitHomework("Student_" + i, "HW", "Solution", "Test", 2017);
+			this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student_" + i, grades[i]);
+		}
+		
+		GradeStatistics statistics = this.instructor.getGradeStatistics("Test", 2017, "HW");
+		assertEquals(5, statistics.getCount());
+		assertEquals(80.0, statistics.getMean(), 0.0);
+		assertEquals(Integer.valueOf(60), statistics.getMin());
+		assertEquals(Integer.valueOf(100), statistics.getMax());
+		assertEquals(Integer.valueOf(80), statistics.getMedian());
+		assertEquals(Integer.valueOf(90), statistics.getPercentile(80));
+	}
+	
+	// 2) Re-grading a student replaces the old grade
+	@Test
+	public void testGradeStatisticsRegrade() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 40);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 95);
+		
+		GradeStatistics statistics = this.instructor.getGradeStatistics("Test", 2017, "HW");
+		assertEquals(1, statistics.getCount());
+		assertEquals(95.0, statistics.getMean(), 0.0);
+		assertEquals(0, statistics.getCount(40));
+		assertEquals(Integer.valueOf(95), statistics.getMin());
+	}
+	
+	// 3) Course statistics cover every homework
+	@Test
+	public void testCourseGradeStatistics() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.student.submitHomework("Student", "HW_2", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 50);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW_2", "Student", 100);
+		
+		GradeStatistics statistics = this.instructor.getCourseGradeStatistics("Test", 2017);
+		assertEquals(2, statistics.getCount());
+		assertEquals(75.0, statistics.getMean(), 0.0);
+		assertEquals(1, this.instructor.getGradeStatistics("Test", 2017, "HW_2").getCount());
+	}
+	
+	// 4) Unknown class or homework gives null
+	@Test
+	public void testGradeStatisticsMissing() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		assertNull(this.instructor.getGradeStatistics("Test", 2017, "HW"));
+		assertNull(this.instructor.getCourseGradeStatistics("Test", 2018));
+		assertEquals(0, this.instructor.getCourseGradeStatistics("Test", 2017).getCount());
+		assertNull(this.instructor.getCourseGradeStatistics("Test", 2017).getMedian());
+	}
+	
+	// 5) A grade equal to the ungraded marker is rejected and leaves the statistics alone
+	@Test
+	public void testGradeStatisticsSentinel() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 90);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", Integer.MIN_VALUE);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 80);
+		
+		assertEquals(Integer.valueOf(80), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+		GradeStatistics statistics = this.instructor.getGradeStatistics("Test", 2017, "HW");
+		assertEquals(1, statistics.getCount());
+		assertEquals(80.0, statistics.getMean(), 0.0);
+		assertEquals(1, this.instructor.getCourseGradeStatistics("Test", 2017).getCount());
+	}
 }
@@ -0,0 +1,351 @@
+package core.test;
+
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.impl.DataManager;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.impl.SymbolTable;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestJournal {
+	
+	private Path file;
+	private DataManager data;
+	private IAdmin admin;
+	private IInstructor instructor;
+	private IStudent student;
+	
+	@Before
+	public void setup() throws IOException {
+		this.file = Files.createTempFile("journal", ".log");
+		open();
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+		Files.deleteIfExists(this.file);
+	}
+	
+	private void open() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+	}
+	
+	// Simulated restart: the old store is discarded and a fresh, empty one takes its place
+	private void restart() throws IOException {
+		this.data.close();
+		open();
+	}
+	
+	private void populate() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.admin.changeCapacity("Test", 2017, 20);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		this.student.dropClass("Student_2", "Test", 2017);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 90);
+	}
+	
+	private void assertPopulated() {
+		assertEquals("Instructor", this.admin.getClassInstructor("Test", 2017));
+		assertEquals(20, this.admin.getClassCapacity("Test", 2017));
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor("Student_2", "Test", 2017));
+		assertTrue(this.student.hasSubmitted("Student", "HW", "Test", 2017));
+		assertEquals(Integer.valueOf(90), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+	}
+	
+	// Every mutation is replayed after a restart
+	@Test
+	public void testReplay() throws IOException {
+		assertEquals(0, this.data.openJournal(this.file, 4, 0));
+		populate();
+		restart();
+		assertFalse(this.admin.classExists("Test", 2017));
+		assertEquals(8, this.data.openJournal(this.file, 4, 0));
+		assertPopulated();
+	}
+	
+	// Classes created before the current year moved on are still replayed, with everything that depends on them
+	@Test
+	public void testReplayPastYear() throws IOException {
+		this.data.openJournal(this.file, 1, 0);
+		populate();
+		restart();
+		this.data.setCurrentYear(2018);
+		
+		assertEquals(8, this.data.openJournal(this.file, 1, 0));
+		assertPopulated();
+		this.admin.createClass("Test_2", 2017, "Instructor", 15);
+		assertFalse(this.admin.classExists("Test_2", 2017));
+	}
+	
+	// Records the model refuses on replay are skipped and not counted
+	@Test
+	public void testReplayCount() throws IOException {
+		this.data.openJournal(this.file, 1, 0);
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		restart();
+		byte[] written = Files.readAllBytes(this.file);
+		int header = 20;	// Magic and generation
+		Files.write(this.file, Arrays.copyOfRange(written, header, written.length), StandardOpenOption.APPEND);
+		
+		assertEquals(2, this.data.openJournal(this.file, 1, 0));
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+	}
+	
+	// A file that does not start with a journal header is refused rather than replayed
+	@Test(expected = IOException.class)
+	public void testNotAJournal() throws IOException {
+		Files.write(this.file, "Test,2017,Instructor,15".getBytes(StandardCharsets.UTF_8));
+		this.data.openJournal(this.file, 1, 0);
+	}
+	
+	// A torn record at the end of the journal is dropped and later records still append cleanly
+	@Test
+	public void testTornTail() throws IOException {
+		this.data.openJournal(this.file, 1, 0);
+		populate();
+		restart();
+		Files.write(this.file, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);	// Partial record
+		
+		assertEquals(8, this.data.openJournal(this.file, 1, 0));
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+		restart();
+		
+		assertEquals(9, this.data.openJournal(this.file, 1, 0));
+		assertPopulated();
+		assertTrue(this.instructor.homeworkExists("Test", 2017, "HW_2"));
+	}
+	
+	// Records waiting for a group are written by the background flush
+	@Test
+	public void testDelayedFlush() throws Exception {
+		this.data.openJournal(this.file, 1000, 10);
+		populate();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (Files.size(this.file) == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(Files.size(this.file) > 0);
+	}
+	
+	// Recovery loads the snapshot and replays only what was journaled after it
+	@Test
+	public void testSnapshotRecovery() throws Exception {
+		Path snapshot = Files.createTempFile("snapshot", ".bin");
+		Files.delete(snapshot);
+		try {
+			assertEquals(0, this.data.openJournal(this.file, snapshot, 1, 0));	// No snapshot yet
+			populate();
+			this.data.checkpoint(snapshot).get();
+			this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+			this.student.submitHomework("Student", "HW_2", "Solution_2", "Test", 2017);
+			restart();
+			assertEquals(2, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertPopulated();
+			assertTrue(this.student.hasSubmitted("Student", "HW_2", "Test", 2017));
+			assertEquals("Solution", this.instructor.getSubmission("Test", 2017, "HW", "Student"));
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+	
+	// A frozen year is frozen again after replay, and after loading a snapshot taken once it was frozen
+	@Test
+	public void testFreezeRecovery() throws Exception {
+		Path snapshot = Files.createTempFile("snapshot", ".bin");
+		Files.delete(snapshot);
+		try {
+			this.data.openJournal(this.file, 1, 0);
+			populate();
+			this.admin.freezeYear(2017);
+			restart();
+			
+			assertEquals(9, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertTrue(this.admin.isFrozen(2017));
+			assertPopulated();
+			this.data.checkpoint(snapshot).get();
+			restart();
+			
+			assertEquals(0, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertTrue(this.admin.isFrozen(2017));
+			assertPopulated();
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+	
+	// Waitlists come back in line order after replay, and after loading a snapshot
+	@Test
+	public void testWaitlistRecovery() throws Exception {
+		Path snapshot = Files.createTempFile("snapshot", ".bin");
+		Files.delete(snapshot);
+		try {
+			this.data.openJournal(this.file, 1, 0);
+			this.admin.createClass("Test", 2017, "Instructor", 1);
+			for (int i = 0; i < 4; i++) {
+				this.student.registerForClass("Student_" + i, "Test", 2017);
+			}
+			this.student.dropClass("Student_2", "Test", 2017);
+			restart();
+			
+			assertEquals(6, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertWaitlist();
+			this.data.checkpoint(snapshot).get();
+			restart();
+			
+			assertEquals(0, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertWaitlist();
+			this.student.dropClass("Student_0", "Test", 2017);
+			assertTrue(this.student.isRegisteredFor("Student_1", "Test", 2017));
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+	
+	private void assertWaitlist() {
+		assertTrue(this.student.isRegisteredFor("Student_0", "Test", 2017));
+		assertEquals(1, this.student.getWaitlistPosition("Student_1", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_2", "Test", 2017));
+		assertEquals(2, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+	}
+	
+	// Changes made through ids are journaled under their names
+	@Test
+	public void testReplayIds() throws IOException {
+		this.data.openJournal(this.file, 1, 0);
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		SymbolTable symbols = new SymbolTable(this.data);
+		int classId = symbols.getClassId("Test", 2017);
+		int studentId = symbols.getStudentId("Student");
+		this.admin.changeCapacity(classId, 20);
+		this.student.registerForClass(studentId, classId);
+		this.student.registerForClass(symbols.getStudentId("Student_2"), classId);
+		this.student.dropClass(symbols.getStudentId("Student_2"), classId);
+		this.student.submitHomework(studentId, symbols.getHomeworkId(classId, "HW"), "Solution", classId);
+		this.instructor.assignGrade("Instructor", classId, symbols.getHomeworkId(classId, "HW"), studentId, 90);
+		restart();
+		
+		assertEquals(8, this.data.openJournal(this.file, 1, 0));
+		assertPopulated();
+	}
+	
+	// Racing registrations and drops replay to the same roster and waitlist
+	@Test
+	public void testConcurrentReplay() throws Exception {
+		this.data.openJournal(this.file, 16, 0);
+		this.admin.createClass("Test", 2017, "Instructor", 5);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int thread = t;
+			threads.add(new Thread(() -> {
+				for (int s = 0; s < 50; s++) {
+					this.student.registerForClass("Student_" + thread + "_" + s, "Test", 2017);
+					if (s % 3 == 0) this.student.dropClass("Student_" + thread + "_" + (s / 2), "Test", 2017);
+				}
+			}));
+		}
+		for (Thread thread : threads) thread.start();
+		for (Thread thread : threads) thread.join();
+		int[] before = positions();
+		restart();
+		
+		this.data.openJournal(this.file, 16, 0);
+		assertArrayEquals(before, positions());
+	}
+	
+	// -1 for registered students, else their waitlist position (0 if not waiting)
+	private int[] positions() {
+		int[] positions = new int[8 * 50];
+		for (int t = 0; t < 8; t++) {
+			for (int s = 0; s < 50; s++) {
+				String name = "Student_" + t + "_" + s;
+				positions[t * 50 + s] = this.student.isRegisteredFor(name, "Test", 2017)
+						? -1 : this.student.getWaitlistPosition(name, "Test", 2017);
+			}
+		}
+		return positions;
+	}
+	
+	// A snapshot taken before the journal was reset is ignored and the whole journal is replayed
+	@Test
+	public void testStaleSnapshot() throws Exception {
+		Path snapshot = Files.createTempFile("snapshot", ".bin");
+		Files.delete(snapshot);
+		try {
+			this.data.openJournal(this.file, snapshot, 1, 0);
+			populate();
+			this.data.checkpoint(snapshot).get();
+			this.data.reset();
+			this.admin.createClass("Other", 2017, "Instructor", 15);
+			restart();
+			
+			assertEquals(1, this.data.openJournal(this.file, snapshot, 1, 0));
+			assertFalse(this.admin.classExists("Test", 2017));
+			assertTrue(this.admin.classExists("Other", 2017));
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+	
+	// A checkpoint taken while registrations and drops race recovers the same roster and waitlist
+	@Test
+	public void testConcurrentCheckpoint() throws Exception {
+		Path snapshot = Files.createTempFile("snapshot", ".bin");
+		Files.delete(snapshot);
+		try {
+			this.data.openJournal(this.file, snapshot, 16, 0);
+			this.admin.createClass("Test", 2017, "Instructor", 5);
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				threads.add(new Thread(() -> {
+					for (int s = 0; s < 50; s++) {
+						this.student.registerForClass("Student_" + thread + "_" + s, "Test", 2017);
+						if (s % 3 == 0) this.student.dropClass("Student_" + thread + "_" + (s / 2), "Test", 2017);
+					}
+				}));
+			}
+			for (Thread thread : threads) thread.start();
+			this.data.checkpoint(snapshot).get();
+			for (Thread thread : threads) {
+				while (thread.isAlive()) {
+					this.data.checkpoint(snapshot).get();
+					thread.join(1);
+				}
+			}
+			int[] before = positions();
+			restart();
+			
+			this.data.openJournal(this.file, snapshot, 16, 0);
+			assertArrayEquals(before, positions());
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+}
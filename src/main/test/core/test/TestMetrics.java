@@ -0,0 +1,230 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.impl.CourseManager;
+import core.api.impl.Importer;
+import core.api.impl.Instructor;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMetrics {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IStudent student;
+	private MBeanServer server;
+	
+	@Before
+	public void setup() throws JMException {
+		this.data = new DataManager();
+		this.data.registerMBeans("TestMetrics");
+		this.admin = new Admin(this.data);
+		this.student = new Student(this.data);
+		this.server = ManagementFactory.getPlatformMBeanServer();
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	private ObjectName name(String api, String method) throws JMException {
+		return new ObjectName("core.api:type=Operation,store=\"TestMetrics\",api=" + api + ",name=" + method);
+	}
+	
+	private long attribute(String api, String method, String attribute) throws JMException {
+		return (Long) this.server.getAttribute(name(api, method), attribute);
+	}
+	
+	/**
+	 * MBean tests:
+	 * 1) Every call is counted, and calls that did nothing are counted as rejected
+	 * 2) Latency percentiles are ordered and bounded by the maximum
+	 * 3) MBeans are removed when the store is closed
+	 * 4) Queries about students who never enrolled or submitted are answered by the filters, without creating the student
+	 * 5) A dropped student still passes the roster filter and is counted as a false positive
+	 * 6) Imported rows are counted under the API calls they go through
+	 * 7) Replaying a journal is not counted as API calls
+	 * 8) Saturated filters are rebuilt from the roster and submissions, keeping every member and shedding dropped students
+	 * 9) Course manager creations the admin refuses are counted as rejected
+	 */
+	
+	// 1) Every call is counted, and calls that did nothing are counted as rejected
+	@Test
+	public void testCounts() throws JMException {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student", "Test", 2017);		// Already registered
+		this.student.registerForClass("Student", "Missing", 2017);		// No such class
+		
+		assertEquals(1, attribute("Admin", "createClass", "Calls"));
+		assertEquals(0, attribute("Admin", "createClass", "Rejected"));
+		assertEquals(3, attribute("Student", "registerForClass", "Calls"));
+		assertEquals(2, attribute("Student", "registerForClass", "Rejected"));
+		assertEquals(0, attribute("Student", "registerForClass", "Failed"));
+	}
+	
+	// 2) Latency percentiles are ordered and bounded by the maximum
+	@Test
+	public void testPercentiles() throws JMException {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		for (int i = 0; i < 10000; i++) {
+			this.admin.classExists("Test", 2017);
+		}
+		long p50 = attribute("Admin", "classExists", "P50Nanos");
+		long p99 = attribute("Admin", "classExists", "P99Nanos");
+		long p999 = attribute("Admin", "classExists", "P999Nanos");
+		long max = attribute("Admin", "classExists", "MaxNanos");
+		assertTrue(p50 > 0);
+		assertTrue(p50 <= p99 && p99 <= p999 && p999 <= max);
+		
+		this.server.invoke(name("Admin", "classExists"), "reset", new Object[0], new String[0]);
+		assertEquals(0, attribute("Admin", "classExists", "Calls"));
+	}
+	
+	// 3) MBeans are removed when the store is closed
+	@Test
+	public void testUnregister() throws JMException, IOException {
+		assertTrue(this.server.isRegistered(name("Instructor", "assignGrade")));
+		this.data.close();
+		assertFalse(this.server.isRegistered(name("Instructor", "assignGrade")));
+	}
+	
+	private long filterAttribute(String filter, String attribute) throws JMException {
+		ObjectName name = new ObjectName("core.api:type=Filter,store=\"TestMetrics\",name=" + filter);
+		return (Long) this.server.getAttribute(name, attribute);
+	}
+	
+	// 4) Queries about students who never enrolled or submitted are answered by the filters, without creating the student
+	@Test
+	public void testFilterNegatives() throws JMException {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		new Instructor(this.data).addHomework("Instructor", "Test", 2017, "HW");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.submitHomework("Student", "HW", "Answer", "Test", 2017);
+		
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertTrue(this.student.hasSubmitted("Student", "HW", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor("Ghost", "Test", 2017));
+		assertFalse(this.student.hasSubmitted("Ghost", "HW", "Test", 2017));
+		
+		assertEquals(2, filterAttribute("roster", "Probes"));
+		assertEquals(1, filterAttribute("roster", "Negatives"));
+		assertEquals(0, filterAttribute("roster", "FalsePositives"));
+		assertEquals(2, filterAttribute("submissions", "Probes"));
+		assertEquals(1, filterAttribute("submissions", "Negatives"));
+		
+		this.student.getTranscript("Ghost");
+		assertEquals(1, attribute("Student", "getTranscript", "Rejected"));		// Ghost was never created
+	}
+	
+	// 5) A dropped student still passes the roster filter and is counted as a false positive
+	@Test
+	public void testFilterFalsePositive() throws JMException {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.dropClass("Student", "Test", 2017);
+		
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertEquals(1, filterAttribute("roster", "FalsePositives"));
+		ObjectName name = new ObjectName("core.api:type=Filter,store=\"TestMetrics\",name=roster");
+		assertEquals(1.0, (Double) this.server.getAttribute(name, "FalsePositiveRate"), 0.0);
+	}
+	
+	// 6) Imported rows are counted under the API calls they go through
+	@Test
+	public void testImportCounts() throws JMException, IOException {
+		Path file = Files.createTempFile("import", ".csv");
+		try {
+			Files.write(file, ("Test,2017,Instructor,15\n"
+					+ "Old,2016,Instructor,15\n").getBytes(StandardCharsets.UTF_8));
+			new Importer(this.data).importCatalog(file);
+			Files.write(file, "Student,Test,2017\n".getBytes(StandardCharsets.UTF_8));
+			new Importer(this.data).importRoster(file);
+		} finally {
+			Files.delete(file);
+		}
+		
+		assertEquals(2, attribute("Admin", "createClass", "Calls"));
+		assertEquals(1, attribute("Admin", "createClass", "Rejected"));
+		assertEquals(1, attribute("Registrar", "registerForClasses", "Calls"));
+		assertEquals(0, attribute("Registrar", "registerForClasses", "Rejected"));
+	}
+	
+	// 7) Replaying a journal is not counted as API calls
+	@Test
+	public void testReplayNotCounted() throws JMException, IOException {
+		Path file = Files.createTempFile("journal", ".log");
+		try {
+			try (DataManager writer = new DataManager()) {
+				writer.openJournal(file, 1, 0);
+				new Admin(writer).createClass("Test", 2017, "Instructor", 15);
+				new Student(writer).registerForClass("Student", "Test", 2017);
+			}
+			assertEquals(2, this.data.openJournal(file, 1, 0));
+			this.data.closeJournal();
+		} finally {
+			Files.delete(file);
+		}
+		
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertEquals(0, attribute("Admin", "createClass", "Calls"));
+		assertEquals(0, attribute("Student", "registerForClass", "Calls"));
+	}
+	
+	// 8) Saturated filters are rebuilt from the roster and submissions, keeping every member and shedding dropped students
+	@Test
+	public void testFilterRebuild() throws JMException {
+		this.admin.createClass("Test", 2017, "Instructor", 100);
+		new Instructor(this.data).addHomework("Instructor", "Test", 2017, "HW");
+		for (int i = 0; i < 200; i++) {
+			this.student.registerForClass("Dropped_" + i, "Test", 2017);
+			this.student.dropClass("Dropped_" + i, "Test", 2017);
+		}
+		for (int i = 0; i < 50; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+			this.student.submitHomework("Student_" + i, "HW", "Answer", "Test", 2017);
+		}
+		
+		for (int i = 0; i < 50; i++) {
+			assertTrue(this.student.isRegisteredFor("Student_" + i, "Test", 2017));
+			assertTrue(this.student.hasSubmitted("Student_" + i, "HW", "Test", 2017));
+		}
+		for (int i = 0; i < 200; i++) {
+			assertFalse(this.student.isRegisteredFor("Dropped_" + i, "Test", 2017));
+		}
+		assertTrue(filterAttribute("roster", "FalsePositives") < 20);
+	}
+	
+	// 9) Course manager creations the admin refuses are counted as rejected
+	@Test
+	public void testCourseManagerCounts() throws JMException {
+		CourseManager manager = new CourseManager((Admin) this.admin);
+		manager.createClass("Test", 2017, "Instructor", 15);
+		manager.createClass("Test", 2017, "Instructor_2", 15);		// Duplicate
+		manager.createClass("Test_2", 2017, "Instructor", 15);
+		manager.createClass("Test_3", 2017, "Instructor", 15);		// Instructor overloaded
+		manager.createClass("Test_4", 2017, "Instructor_3", 1001);	// Over the manager's limit
+		
+		assertEquals(5, attribute("CourseManager", "createClass", "Calls"));
+		assertEquals(3, attribute("CourseManager", "createClass", "Rejected"));
+	}
+}
@@ -0,0 +1,101 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IRegistrar;
+import core.api.impl.Registrar;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.RegistrationResult;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRegistrar {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IRegistrar registrar;
+	private IStudent student;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.registrar = new Registrar(this.data);
+		this.student = new Student(this.data);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	/**
+	 * registerForClass() (one class) tests:
+	 * 1) Class must exist
+	 * 2) Seats are handed out in roster order up to capacity
+	 * 3) Students already registered keep their seat and don't take another
+	 */
+	
+	// 1) Class must exist
+	@Test
+	public void testRosterClassExists() {
+		RegistrationResult[] results = this.registrar.registerForClass(new String[] {"Student", "Student_2"}, "Test", 2017);
+		assertArrayEquals(new RegistrationResult[] {RegistrationResult.NO_SUCH_CLASS, RegistrationResult.NO_SUCH_CLASS}, results);
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+	}
+	
+	// 2) Seats are handed out in roster order up to capacity
+	@Test
+	public void testRosterCapacity() {
+		this.admin.createClass("Test", 2017, "Instructor", 2);
+		RegistrationResult[] results = this.registrar.registerForClass(new String[] {"Student", "Student_2", "Student_3"}, "Test", 2017);
+		
+		assertArrayEquals(new RegistrationResult[] {
+				RegistrationResult.REGISTERED, RegistrationResult.REGISTERED, RegistrationResult.WAITLISTED}, results);
+		assertTrue(this.student.isRegisteredFor("Student_2", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor("Student_3", "Test", 2017));
+	}
+	
+	// 3) Students already registered keep their seat and don't take another
+	@Test
+	public void testRosterAlreadyRegistered() {
+		this.admin.createClass("Test", 2017, "Instructor", 2);
+		this.student.registerForClass("Student", "Test", 2017);
+		RegistrationResult[] results = this.registrar.registerForClass(new String[] {"Student", "Student_2", "Student_3"}, "Test", 2017);
+		
+		assertArrayEquals(new RegistrationResult[] {
+				RegistrationResult.ALREADY_REGISTERED, RegistrationResult.REGISTERED, RegistrationResult.WAITLISTED}, results);
+		
+		this.admin.changeCapacity("Test", 2017, 1);	// Unused reserved seats must have been released
+		assertEquals(2, this.admin.getClassCapacity("Test", 2017));
+	}
+	
+	/**
+	 * registerForClasses() (student/class pairs) tests:
+	 * 1) Each pair is registered against its own class, results stay in input order
+	 */
+	
+	// 1) Each pair is registered against its own class, results stay in input order
+	@Test
+	public void testPairs() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.admin.createClass("Test_1", 2017, "Instructor", 15);
+		RegistrationResult[] results = this.registrar.registerForClasses(
+				new String[] {"Student", "Student_2", "Student", "Student"},
+				new String[] {"Test", "Test", "Test_1", "Test_2"},
+				new int[] {2017, 2017, 2017, 2017});
+		
+		assertArrayEquals(new RegistrationResult[] {
+				RegistrationResult.REGISTERED, RegistrationResult.WAITLISTED,
+				RegistrationResult.REGISTERED, RegistrationResult.NO_SUCH_CLASS}, results);
+		assertTrue(this.student.isRegisteredFor("Student", "Test_1", 2017));
+	}
+}
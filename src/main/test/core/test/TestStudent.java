@@ -1,29 +1,44 @@
 package core.test;
 
+import core.api.impl.DataManager;
 import core.api.IAdmin;
 import core.api.impl.Admin;
 import core.api.IInstructor;
 import core.api.impl.Instructor;
 import core.api.IStudent;
 import core.api.impl.Student;
+import core.api.TranscriptEntry;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 public class TestStudent {
 	
+	private DataManager data;
 	private IAdmin admin;
 	private IInstructor instructor;
 	private IStudent student;
 	
 	@Before
 	public void setup() {
-		this.admin = new Admin();
-		this.instructor = new Instructor();
-		this.student = new Student();
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
 	}
 	
 	/**
@@ -200,4 +215,198 @@ public class TestStudent {
 		
 		assertFalse(this.student.hasSubmitted("Student", "HW", "Test", 2018));
 	}
+	
+	/**
+	 * Student identity tests:
+	 * 1) Students are identified by name across calls
+	 */
+	
+	// 1) Students are identified by name across calls
+	@Test
+	public void testStudentIdentity() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.admin.createClass("Test_1", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test_1", 2017);
+		
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor("Student", "Test_1", 2017));	// Other student's class
+		assertTrue(this.student.isRegisteredFor("Student_2", "Test_1", 2017));
+	}
+	
+	/**
+	 * getTranscript() tests:
+	 * 1) Lists every registered class in year order with its grades
+	 * 2) Dropped classes leave the transcript
+	 * 3) A year restricts the transcript to that year's classes
+	 * 4) Unknown students have an empty transcript
+	 */
+	
+	// 1) Lists every registered class in year order with its grades
+	@Test
+	public void testTranscript() {
+		this.admin.createClass("Test_2", 2018, "Instructor", 15);
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student", "Test_2", 2018);
+		this.student.submitHomework("Student", "HW", "Solution", "Test", 2017);
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Student", 85);
+		
+		List<TranscriptEntry> transcript = this.student.getTranscript("Student");
+		assertEquals(2, transcript.size());
+		assertEquals("Test", transcript.get(0).getClassName());
+		assertEquals(Integer.valueOf(85), transcript.get(0).getGrade("HW"));
+		assertNull(transcript.get(0).getGrade("HW_2"));						// Not graded
+		assertEquals(2018, transcript.get(1).getYear());
+		assertTrue(transcript.get(1).getGrades().isEmpty());
+	}
+	
+	// 2) Dropped classes leave the transcript
+	@Test
+	public void testTranscriptDrop() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.dropClass("Student", "Test", 2017);
+		assertTrue(this.student.getTranscript("Student").isEmpty());
+		
+		this.student.registerForClass("Student", "Test", 2017);				// Register again
+		assertEquals(1, this.student.getTranscript("Student").size());
+	}
+	
+	// 3) A year restricts the transcript to that year's classes
+	@Test
+	public void testTranscriptYear() {
+		this.admin.createClass("Test", 2017, "Instructor", 15);
+		this.admin.createClass("Test", 2018, "Instructor", 15);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student", "Test", 2018);
+		
+		List<TranscriptEntry> transcript = this.student.getTranscript("Student", 2018);
+		assertEquals(1, transcript.size());
+		assertEquals(2018, transcript.get(0).getYear());
+		assertTrue(this.student.getTranscript("Student", 2019).isEmpty());
+	}
+	
+	// 4) Unknown students have an empty transcript
+	@Test
+	public void testTranscriptUnknown() {
+		assertTrue(this.student.getTranscript("Nobody").isEmpty());
+	}
+	
+	/**
+	 * Waitlist tests:
+	 * 1) Students registering for a full class are queued in arrival order
+	 * 2) A drop promotes the first student in line and moves everyone up
+	 * 3) Raising the capacity promotes as many students as there are new seats, in order
+	 * 4) Leaving the waitlist moves everyone behind up, and newcomers never jump the queue
+	 */
+	
+	// 1) Students registering for a full class are queued in arrival order
+	@Test
+	public void testWaitlistQueue() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		this.student.registerForClass("Student_3", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor("Student_2", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student", "Test", 2017));
+		assertEquals(1, this.student.getWaitlistPosition("Student_2", "Test", 2017));
+		assertEquals(2, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_4", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_2", "Test", 2018));
+	}
+	
+	// 2) A drop promotes the first student in line and moves everyone up
+	@Test
+	public void testWaitlistDrop() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.student.registerForClass("Student", "Test", 2017);
+		this.student.registerForClass("Student_2", "Test", 2017);
+		this.student.registerForClass("Student_3", "Test", 2017);
+		this.student.dropClass("Student", "Test", 2017);
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertTrue(this.student.isRegisteredFor("Student_2", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_2", "Test", 2017));
+		assertEquals(1, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+		assertEquals(1, this.student.getTranscript("Student_2").size());
+	}
+	
+	// 3) Raising the capacity promotes as many students as there are new seats, in order
+	@Test
+	public void testWaitlistCapacity() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		for (int i = 0; i < 5; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+		}
+		this.admin.changeCapacity("Test", 2017, 3);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(this.student.isRegisteredFor("Student_" + i, "Test", 2017));
+		}
+		assertEquals(1, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+		assertEquals(2, this.student.getWaitlistPosition("Student_4", "Test", 2017));
+		this.admin.changeCapacity("Test", 2017, 10);
+		assertTrue(this.student.isRegisteredFor("Student_4", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_4", "Test", 2017));
+	}
+	
+	// 4) Leaving the waitlist moves everyone behind up, and newcomers never jump the queue
+	@Test
+	public void testWaitlistLeave() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		for (int i = 0; i < 4; i++) {
+			this.student.registerForClass("Student_" + i, "Test", 2017);
+		}
+		this.student.dropClass("Student_2", "Test", 2017);
+		assertEquals(1, this.student.getWaitlistPosition("Student_1", "Test", 2017));
+		assertEquals(0, this.student.getWaitlistPosition("Student_2", "Test", 2017));
+		assertEquals(2, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+		
+		this.student.dropClass("Student_0", "Test", 2017);
+		this.student.registerForClass("Student_4", "Test", 2017);
+		assertTrue(this.student.isRegisteredFor("Student_1", "Test", 2017));
+		assertEquals(1, this.student.getWaitlistPosition("Student_3", "Test", 2017));
+		assertEquals(2, this.student.getWaitlistPosition("Student_4", "Test", 2017));
+	}
+	
+	/**
+	 * Membership filter tests:
+	 * 1) Every enrolled student is still found after the roster filter has grown and been rebuilt
+	 * 2) Every student who submitted is found, and students who did not are not
+	 */
+	
+	// 1) Every enrolled student is still found after the roster filter has grown and been rebuilt
+	@Test
+	public void testFilterGrowth() {
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.admin.changeCapacity("Test", 2017, 2000);
+		for (int i = 0; i < 2000; i++) {
+			this.student.registerForClass("Student" + i, "Test", 2017);
+		}
+		for (int i = 0; i < 2000; i += 2) {
+			this.student.dropClass("Student" + i, "Test", 2017);
+			this.student.registerForClass("Student" + i, "Test", 2017);
+		}
+		for (int i = 0; i < 2000; i++) {
+			assertTrue(this.student.isRegisteredFor("Student" + i, "Test", 2017));
+		}
+		assertFalse(this.student.isRegisteredFor("Student2000", "Test", 2017));
+	}
+	
+	// 2) Every student who submitted is found, and students who did not are not
+	@Test
+	public void testFilterSubmissions() {
+		this.admin.createClass("Test", 2017, "Instructor", 500);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		for (int i = 0; i < 500; i++) {
+			this.student.registerForClass("Student" + i, "Test", 2017);
+			if (i % 3 == 0) this.student.submitHomework("Student" + i, "HW", "Answer", "Test", 2017);
+		}
+		for (int i = 0; i < 500; i++) {
+			assertEquals(i % 3 == 0, this.student.hasSubmitted("Student" + i, "HW", "Test", 2017));
+		}
+	}
 }
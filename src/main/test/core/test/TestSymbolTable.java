@@ -0,0 +1,137 @@
+package core.test;
+
+import core.api.impl.DataManager;
+import core.api.IAdmin;
+import core.api.impl.Admin;
+import core.api.IInstructor;
+import core.api.impl.Instructor;
+import core.api.IStudent;
+import core.api.impl.Student;
+import core.api.ISymbolTable;
+import core.api.impl.SymbolTable;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSymbolTable {
+	
+	private DataManager data;
+	private IAdmin admin;
+	private IInstructor instructor;
+	private IStudent student;
+	private ISymbolTable symbols;
+	
+	@Before
+	public void setup() {
+		this.data = new DataManager();
+		this.admin = new Admin(this.data);
+		this.instructor = new Instructor(this.data);
+		this.student = new Student(this.data);
+		this.symbols = new SymbolTable(this.data);
+		
+		this.admin.createClass("Test", 2017, "Instructor", 1);
+		this.admin.createClass("Test", 2018, "Instructor", 15);
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW");
+		this.instructor.addHomework("Instructor", "Test", 2017, "HW_2");
+	}
+	
+	@After
+	public void teardown() throws IOException {
+		this.data.close();
+	}
+	
+	/**
+	 * ISymbolTable tests:
+	 * 1) Names resolve to dense ids that stay the same across calls
+	 * 2) Unknown classes and homeworks resolve to -1
+	 * 3) Id-based calls act on the same data as name-based calls
+	 * 4) Ids that belong to nothing behave like unknown names
+	 * 5) Grading an unknown student name does not give it an id
+	 */
+	
+	// 1) Names resolve to dense ids that stay the same across calls
+	@Test
+	public void testSymbolIds() {
+		int classId = this.symbols.getClassId("Test", 2017);
+		assertEquals(0, classId);
+		assertEquals(1, this.symbols.getClassId("Test", 2018));
+		assertEquals(classId, this.symbols.getClassId("Test", 2017));
+		assertEquals(0, this.symbols.getHomeworkId(classId, "HW"));
+		assertEquals(1, this.symbols.getHomeworkId(classId, "HW_2"));
+		
+		int studentId = this.symbols.getStudentId("Student");
+		assertEquals(studentId, this.symbols.getStudentId("Student"));
+		assertEquals(studentId + 1, this.symbols.getStudentId("Student_2"));
+	}
+	
+	// 2) Unknown classes and homeworks resolve to -1
+	@Test
+	public void testSymbolMissing() {
+		assertEquals(-1, this.symbols.getClassId("Test", 2019));
+		assertEquals(-1, this.symbols.getClassId("Test_2", 2017));
+		assertEquals(-1, this.symbols.getHomeworkId(this.symbols.getClassId("Test", 2018), "HW"));
+		assertEquals(-1, this.symbols.getHomeworkId(this.symbols.getClassId("Test", 2017), "HW_3"));
+		assertEquals(-1, this.symbols.getHomeworkId(-1, "HW"));
+	}
+	
+	// 3) Id-based calls act on the same data as name-based calls
+	@Test
+	public void testSymbolCalls() {
+		int classId = this.symbols.getClassId("Test", 2017);
+		int homeworkId = this.symbols.getHomeworkId(classId, "HW");
+		int studentId = this.symbols.getStudentId("Student");
+		int waitingId = this.symbols.getStudentId("Student_2");
+		
+		this.student.registerForClass(studentId, classId);
+		this.student.registerForClass(waitingId, classId);
+		assertTrue(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertTrue(this.student.isRegisteredFor(studentId, classId));
+		assertEquals(1, this.student.getWaitlistPosition(waitingId, classId));
+		
+		this.student.submitHomework(studentId, homeworkId, "Solution", classId);
+		assertTrue(this.student.hasSubmitted("Student", "HW", "Test", 2017));
+		assertTrue(this.student.hasSubmitted(studentId, homeworkId, classId));
+		assertEquals("Solution", this.instructor.getSubmission(classId, homeworkId, studentId));
+		
+		this.instructor.assignGrade("Instructor", classId, homeworkId, studentId, 90);
+		assertEquals(Integer.valueOf(90), this.instructor.getGrade("Test", 2017, "HW", "Student"));
+		assertEquals(Integer.valueOf(90), this.instructor.getGrade(classId, homeworkId, studentId));
+		
+		this.admin.changeCapacity(classId, 2);
+		assertEquals(2, this.admin.getClassCapacity("Test", 2017));
+		assertEquals(2, this.admin.getClassCapacity(classId));
+		assertEquals("Instructor", this.admin.getClassInstructor(classId));
+		assertTrue(this.student.isRegisteredFor(waitingId, classId));
+		
+		this.student.dropClass(studentId, classId);
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+	}
+	
+	// 4) Ids that belong to nothing behave like unknown names
+	@Test
+	public void testSymbolUnknownIds() {
+		int classId = this.symbols.getClassId("Test", 2017);
+		this.student.registerForClass(1000, classId);
+		this.student.registerForClass(this.symbols.getStudentId("Student"), 1000);
+		assertFalse(this.student.isRegisteredFor("Student", "Test", 2017));
+		assertFalse(this.student.isRegisteredFor(1000, classId));
+		assertFalse(this.student.hasSubmitted(0, 5, classId));
+		assertNull(this.instructor.getGrade(classId, -1, 0));
+		assertNull(this.instructor.getSubmission(-1, 0, 0));
+		assertNull(this.admin.getClassInstructor(1000));
+		assertEquals(-1, this.admin.getClassCapacity(-1));
+	}
+	
+	// 5) Grading an unknown student name does not give it an id
+	@Test
+	public void testSymbolGradeUnknown() {
+		assertEquals(0, this.symbols.getStudentId("Student"));
+		this.instructor.assignGrade("Instructor", "Test", 2017, "HW", "Ghost", 90);
+		assertEquals(1, this.symbols.getStudentId("Student_2"));
+	}
+}